@@ -0,0 +1,272 @@
+package tech.nelreina.camel.quarkus.redis.stream.component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import io.lettuce.core.Limit;
+import io.lettuce.core.Range;
+import io.lettuce.core.XPendingArgs;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.models.stream.PendingMessage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.logging.Log;
+
+/**
+ * Samples every stream and consumer group the component's consumers read from and publishes the
+ * results as gauges, so autoscalers can follow consumer lag without a separate exporter.
+ * <p>
+ * Per group, one sample costs an {@code XINFO GROUPS} and an {@code XINFO STREAM}, plus an
+ * {@code XPENDING} for the oldest entry when messages are pending. Lag is taken from the group's
+ * {@code lag} field (Redis 7+). When Redis cannot tell the lag, it is reported as {@code NaN} and
+ * {@code lag.time}, the distance in milliseconds between the last added and the last delivered
+ * entry ID, still shows how far the group is behind.
+ */
+public class ConsumerGroupLagSampler implements Runnable {
+
+    private final Function<String, RedisCommands<String, String>> commandsForKey;
+    private final MeterRegistry registry;
+    private final long intervalMillis;
+    private final Map<String, LagSample> samples = new ConcurrentHashMap<>();
+    private final Map<String, Integer> registrations = new ConcurrentHashMap<>();
+
+    /**
+     * @param commandsForKey commands on the node serving a stream key
+     */
+    public ConsumerGroupLagSampler(Function<String, RedisCommands<String, String>> commandsForKey, MeterRegistry registry, 
+                                   long intervalMillis) {
+        this.commandsForKey = commandsForKey;
+        this.registry = registry;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Starts sampling the group on the stream. Group members register once each and the group is
+     * sampled until the last of them unregisters.
+     */
+    public synchronized void register(String streamKey, String group) {
+        String key = key(streamKey, group);
+        if (registrations.merge(key, 1, Integer::sum) == 1) {
+            LagSample sample = new LagSample(streamKey, group);
+            sample.registerGauges(registry);
+            samples.put(key, sample);
+        }
+    }
+
+    public synchronized void unregister(String streamKey, String group) {
+        String key = key(streamKey, group);
+        Integer remaining = registrations.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        if (remaining == null) {
+            LagSample sample = samples.remove(key);
+            if (sample != null) {
+                sample.removeGauges(registry);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        for (LagSample sample : samples.values()) {
+            try {
+                sample(sample);
+            } catch (Exception e) {
+                sample.failed();
+                Log.debugf("Failed to sample consumer group %s on stream %s: %s", sample.group, sample.streamKey, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Whether every known group was sampled successfully within the last three intervals, meaning
+     * Redis is reachable and all streams and groups exist.
+     */
+    public boolean isReady() {
+        long now = System.currentTimeMillis();
+        for (LagSample sample : samples.values()) {
+            if (!sample.available || now - sample.sampledAt > intervalMillis * 3) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<LagSample> getSamples() {
+        return new ArrayList<>(samples.values());
+    }
+
+    public LagSample getSample(String streamKey, String group) {
+        return samples.get(key(streamKey, group));
+    }
+
+    private void sample(LagSample sample) {
+        RedisCommands<String, String> commands = commandsForKey.apply(sample.streamKey);
+        Map<String, Object> groupInfo = null;
+        for (Object entry : commands.xinfoGroups(sample.streamKey)) {
+            Map<String, Object> info = toMap((List<?>) entry);
+            if (sample.group.equals(info.get("name"))) {
+                groupInfo = info;
+                break;
+            }
+        }
+        if (groupInfo == null) {
+            sample.failed();
+            return;
+        }
+        Map<String, Object> streamInfo = toMap(commands.xinfoStream(sample.streamKey));
+
+        long pending = toLong(groupInfo.get("pending"), 0L);
+        long oldestPendingIdle = 0L;
+        if (pending > 0) {
+            List<PendingMessage> oldest = commands.xpending(sample.streamKey,
+                    XPendingArgs.Builder.xpending(sample.group, Range.unbounded(), Limit.from(1)));
+            if (!oldest.isEmpty()) {
+                oldestPendingIdle = oldest.get(0).getMsSinceLastDelivery();
+            }
+        }
+
+        long lagMillis = Math.max(0L, millisOf((String) streamInfo.get("last-generated-id"))
+                - millisOf((String) groupInfo.get("last-delivered-id")));
+        Object lag = groupInfo.get("lag");
+        sample.update(lag != null ? toLong(lag, 0L) : Double.NaN, lagMillis, pending, oldestPendingIdle,
+                toLong(streamInfo.get("length"), 0L));
+    }
+
+    private static Map<String, Object> toMap(List<?> flat) {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            map.put(String.valueOf(flat.get(i)), flat.get(i + 1));
+        }
+        return map;
+    }
+
+    private static long toLong(Object value, long defaultValue) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value != null) {
+            try {
+                return Long.parseLong(value.toString());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+
+    private static long millisOf(String id) {
+        if (id == null) {
+            return 0L;
+        }
+        int separator = id.indexOf('-');
+        return Long.parseLong(separator > 0 ? id.substring(0, separator) : id);
+    }
+
+    private static String key(String streamKey, String group) {
+        return streamKey + '/' + group;
+    }
+
+    /**
+     * Latest sample of one consumer group.
+     */
+    public static final class LagSample {
+
+        private final String streamKey;
+        private final String group;
+        private final List<Meter> gauges = new ArrayList<>(5);
+        private volatile double lag = Double.NaN;
+        private volatile long lagMillis;
+        private volatile long pending;
+        private volatile long oldestPendingIdleMillis;
+        private volatile long length;
+        private volatile long sampledAt;
+        private volatile boolean available;
+
+        LagSample(String streamKey, String group) {
+            this.streamKey = streamKey;
+            this.group = group;
+        }
+
+        private void registerGauges(MeterRegistry registry) {
+            Tags tags = Tags.of("stream", streamKey, "group", group);
+            gauges.add(Gauge.builder("redis.stream.group.lag", this, LagSample::getLag)
+                    .description("Entries added to the stream but not yet delivered to the group")
+                    .tags(tags).strongReference(true).register(registry));
+            gauges.add(Gauge.builder("redis.stream.group.lag.time", this, LagSample::getLagMillis)
+                    .description("Milliseconds between the last added and the last delivered entry ID")
+                    .tags(tags).strongReference(true).register(registry));
+            gauges.add(Gauge.builder("redis.stream.group.pending", this, LagSample::getPending)
+                    .description("Delivered but unacknowledged entries")
+                    .tags(tags).strongReference(true).register(registry));
+            gauges.add(Gauge.builder("redis.stream.group.pending.oldest.idle", this, LagSample::getOldestPendingIdleMillis)
+                    .description("Milliseconds since the oldest pending entry was delivered")
+                    .tags(tags).strongReference(true).register(registry));
+            gauges.add(Gauge.builder("redis.stream.group.ready", this, sample -> sample.available ? 1 : 0)
+                    .description("1 when the last sample of the group succeeded")
+                    .tags(tags).strongReference(true).register(registry));
+        }
+
+        private void removeGauges(MeterRegistry registry) {
+            gauges.forEach(registry::remove);
+            gauges.clear();
+        }
+
+        private void update(double lag, long lagMillis, long pending, long oldestPendingIdleMillis, long length) {
+            this.lag = lag;
+            this.lagMillis = lagMillis;
+            this.pending = pending;
+            this.oldestPendingIdleMillis = oldestPendingIdleMillis;
+            this.length = length;
+            this.sampledAt = System.currentTimeMillis();
+            this.available = true;
+        }
+
+        private void failed() {
+            this.available = false;
+        }
+
+        public String getStreamKey() {
+            return streamKey;
+        }
+
+        public String getGroup() {
+            return group;
+        }
+
+        /**
+         * Entries not yet delivered to the group, {@code NaN} when Redis cannot tell.
+         */
+        public double getLag() {
+            return lag;
+        }
+
+        public long getLagMillis() {
+            return lagMillis;
+        }
+
+        public long getPending() {
+            return pending;
+        }
+
+        public long getOldestPendingIdleMillis() {
+            return oldestPendingIdleMillis;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public long getSampledAt() {
+            return sampledAt;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+    }
+}
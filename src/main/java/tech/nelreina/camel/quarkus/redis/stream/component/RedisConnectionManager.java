@@ -0,0 +1,345 @@
+package tech.nelreina.camel.quarkus.redis.stream.component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.support.AsyncConnectionPoolSupport;
+import io.lettuce.core.support.BoundedAsyncPool;
+import io.lettuce.core.support.BoundedPoolConfig;
+import io.quarkus.logging.Log;
+
+/**
+ * Owns the Redis client and every connection the component opens:
+ * <ul>
+ * <li>one shared, multiplexed connection per codec for non-blocking commands such as
+ * producer XADDs, acknowledgements and group management</li>
+ * <li>dedicated connections for consumers issuing blocking reads and for producer pipelines,
+ * so they never stall the shared connection</li>
+ * <li>a bounded pool per codec for short exclusive use, like a MULTI/EXEC bulk publish</li>
+ * </ul>
+ * All connections run on one set of {@link ClientResources}, so the component creates a single
+ * Netty event loop group however many endpoints it serves.
+ * <p>
+ * Against a Redis Cluster every connection is a connection to the master node serving the slot
+ * of a key, which is why the accessors take the key the connection is used for. Shared node
+ * connections come from one cluster connection that keeps the topology up to date; dedicated and
+ * pooled ones are opened to the node directly. In standalone mode the key is ignored.
+ */
+public class RedisConnectionManager {
+
+    private static final RedisCodec<String, byte[]> BINARY_CODEC = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+    private static final String STANDALONE_NODE = "standalone";
+
+    private final RedisURI redisURI;
+    private final BoundedPoolConfig poolConfig;
+    private final ClientResources clientResources;
+    private final boolean ownsClientResources;
+    private final RedisClient redisClient;
+    private final RedisClusterClient clusterClient;
+    private final Set<StatefulConnection<?, ?>> dedicatedConnections = ConcurrentHashMap.newKeySet();
+    private final Map<String, BoundedAsyncPool<StatefulRedisConnection<String, Object>>> pools = new ConcurrentHashMap<>();
+    private final Map<StatefulRedisConnection<String, Object>, BoundedAsyncPool<StatefulRedisConnection<String, Object>>> borrowed = 
+            new ConcurrentHashMap<>();
+    private volatile StatefulRedisConnection<String, String> sharedConnection;
+    private volatile StatefulRedisConnection<String, byte[]> sharedBinaryConnection;
+    private volatile StatefulRedisClusterConnection<String, String> sharedClusterConnection;
+    private volatile StatefulRedisClusterConnection<String, byte[]> sharedBinaryClusterConnection;
+
+    /**
+     * @param seedURIs            the Redis server, or the seed nodes of the cluster
+     * @param ownsClientResources whether {@link #close()} shuts the resources down, which must not
+     *                            happen for resources supplied by the application
+     */
+    public RedisConnectionManager(List<RedisURI> seedURIs, boolean cluster, ClientResources clientResources,
+                                  boolean ownsClientResources, int poolMaxTotal, int poolMaxIdle, int poolMinIdle) {
+        this.redisURI = seedURIs.get(0);
+        this.clientResources = clientResources;
+        this.ownsClientResources = ownsClientResources;
+        this.poolConfig = BoundedPoolConfig.builder()
+                .maxTotal(poolMaxTotal)
+                .maxIdle(poolMaxIdle)
+                .minIdle(poolMinIdle)
+                .build();
+        if (cluster) {
+            // Node connections are resolved from the slot table, keep it current across failovers and resharding
+            this.clusterClient = RedisClusterClient.create(clientResources, seedURIs);
+            this.clusterClient.setOptions(ClusterClientOptions.builder()
+                    .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                            .enablePeriodicRefresh(Duration.ofSeconds(30))
+                            .enableAllAdaptiveRefreshTriggers()
+                            .build())
+                    .build());
+            this.redisClient = RedisClient.create(clientResources);
+        } else {
+            this.clusterClient = null;
+            this.redisClient = RedisClient.create(clientResources, redisURI);
+        }
+    }
+
+    public boolean isCluster() {
+        return clusterClient != null;
+    }
+
+    /**
+     * Identifies the node serving the key, {@code host:port} of its master in cluster mode.
+     */
+    public String nodeFor(String key) {
+        if (clusterClient == null) {
+            return STANDALONE_NODE;
+        }
+        RedisURI uri = masterFor(key).getUri();
+        return uri.getHost() + ":" + uri.getPort();
+    }
+
+    /**
+     * Keys in the same slot can be used in one multi-key command. Always 0 in standalone mode.
+     */
+    public int slotFor(String key) {
+        return clusterClient == null ? 0 : SlotHash.getSlot(key);
+    }
+
+    public StatefulRedisConnection<String, String> getSharedConnection(String key) {
+        if (clusterClient != null) {
+            RedisURI uri = masterFor(key).getUri();
+            return getSharedClusterConnection().getConnection(uri.getHost(), uri.getPort());
+        }
+        if (sharedConnection == null) {
+            synchronized (this) {
+                if (sharedConnection == null) {
+                    sharedConnection = connect(StringCodec.UTF8, redisURI, "shared");
+                }
+            }
+        }
+        return sharedConnection;
+    }
+
+    public StatefulRedisConnection<String, byte[]> getSharedBinaryConnection(String key) {
+        if (clusterClient != null) {
+            RedisURI uri = masterFor(key).getUri();
+            return getSharedBinaryClusterConnection().getConnection(uri.getHost(), uri.getPort());
+        }
+        if (sharedBinaryConnection == null) {
+            synchronized (this) {
+                if (sharedBinaryConnection == null) {
+                    sharedBinaryConnection = connect(BINARY_CODEC, redisURI, "shared binary");
+                }
+            }
+        }
+        return sharedBinaryConnection;
+    }
+
+    /**
+     * Shared connections to every master, for commands that have to visit all of them such as SCAN.
+     */
+    public List<StatefulRedisConnection<String, String>> getSharedMasterConnections() {
+        if (clusterClient == null) {
+            return List.of(getSharedConnection(null));
+        }
+        StatefulRedisClusterConnection<String, String> cluster = getSharedClusterConnection();
+        List<StatefulRedisConnection<String, String>> connections = new ArrayList<>();
+        for (RedisClusterNode node : cluster.getPartitions()) {
+            if (node.is(RedisClusterNode.NodeFlag.UPSTREAM)) {
+                connections.add(cluster.getConnection(node.getUri().getHost(), node.getUri().getPort()));
+            }
+        }
+        return connections;
+    }
+
+    /**
+     * Opens a connection to the node serving the key, owned by the caller, which must hand it back
+     * with {@link #release(StatefulConnection)}.
+     */
+    public StatefulRedisConnection<String, String> openDedicatedConnection(String key) {
+        return track(connect(StringCodec.UTF8, nodeURI(key), "dedicated"));
+    }
+
+    public StatefulRedisConnection<String, byte[]> openDedicatedBinaryConnection(String key) {
+        return track(connect(BINARY_CODEC, nodeURI(key), "dedicated binary"));
+    }
+
+    public void release(StatefulConnection<?, ?> connection) {
+        if (connection != null && dedicatedConnections.remove(connection)) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Borrows a connection to the node serving the key for exclusive use. Values are String or
+     * byte[] depending on the codec, the connection must be returned with {@link #releasePooled(StatefulRedisConnection)}.
+     */
+    public CompletableFuture<StatefulRedisConnection<String, Object>> acquirePooled(boolean binary, String key) {
+        BoundedAsyncPool<StatefulRedisConnection<String, Object>> pool = getPool(binary, key);
+        // Remember the pool, the slot may have moved to another node by the time the connection comes back
+        return pool.acquire().thenApply(connection -> {
+            borrowed.put(connection, pool);
+            return connection;
+        });
+    }
+
+    public CompletableFuture<Void> releasePooled(StatefulRedisConnection<String, Object> connection) {
+        BoundedAsyncPool<StatefulRedisConnection<String, Object>> pool = borrowed.remove(connection);
+        return pool != null ? pool.release(connection) : CompletableFuture.completedFuture(null);
+    }
+
+    public int getDedicatedConnectionCount() {
+        return dedicatedConnections.size();
+    }
+
+    public int getPoolMaxTotal() {
+        return poolConfig.getMaxTotal();
+    }
+
+    /**
+     * Pooled connections currently borrowed, across all codecs and nodes.
+     */
+    public int getPoolActive() {
+        int active = 0;
+        for (BoundedAsyncPool<?> pool : pools.values()) {
+            active += pool.getObjectCount() - pool.getIdle();
+        }
+        return active;
+    }
+
+    public int getPoolIdle() {
+        int idle = 0;
+        for (BoundedAsyncPool<?> pool : pools.values()) {
+            idle += pool.getIdle();
+        }
+        return idle;
+    }
+
+    public void close() {
+        pools.values().forEach(BoundedAsyncPool::close);
+        pools.clear();
+        borrowed.clear();
+
+        for (StatefulConnection<?, ?> connection : dedicatedConnections) {
+            connection.close();
+        }
+        dedicatedConnections.clear();
+
+        if (sharedConnection != null) {
+            Log.info("Closing Redis connection");
+            sharedConnection.close();
+            sharedConnection = null;
+        }
+        if (sharedBinaryConnection != null) {
+            sharedBinaryConnection.close();
+            sharedBinaryConnection = null;
+        }
+        if (sharedClusterConnection != null) {
+            Log.info("Closing Redis Cluster connection");
+            sharedClusterConnection.close();
+            sharedClusterConnection = null;
+        }
+        if (sharedBinaryClusterConnection != null) {
+            sharedBinaryClusterConnection.close();
+            sharedBinaryClusterConnection = null;
+        }
+        redisClient.shutdown();
+        if (clusterClient != null) {
+            clusterClient.shutdown();
+        }
+        if (ownsClientResources) {
+            clientResources.shutdown();
+        }
+    }
+
+    private StatefulRedisClusterConnection<String, String> getSharedClusterConnection() {
+        if (sharedClusterConnection == null) {
+            synchronized (this) {
+                if (sharedClusterConnection == null) {
+                    Log.infof("Creating shared Redis Cluster connection to: %s", redisURI.toString());
+                    sharedClusterConnection = clusterClient.connect(StringCodec.UTF8);
+                }
+            }
+        }
+        return sharedClusterConnection;
+    }
+
+    private StatefulRedisClusterConnection<String, byte[]> getSharedBinaryClusterConnection() {
+        if (sharedBinaryClusterConnection == null) {
+            synchronized (this) {
+                if (sharedBinaryClusterConnection == null) {
+                    Log.infof("Creating shared binary Redis Cluster connection to: %s", redisURI.toString());
+                    sharedBinaryClusterConnection = clusterClient.connect(BINARY_CODEC);
+                }
+            }
+        }
+        return sharedBinaryClusterConnection;
+    }
+
+    private RedisClusterNode masterFor(String key) {
+        int slot = SlotHash.getSlot(key != null ? key : "");
+        // The topology is loaded by the first cluster connection
+        getSharedClusterConnection();
+        RedisClusterNode node = clusterClient.getPartitions().getMasterBySlot(slot);
+        if (node == null) {
+            throw new IllegalStateException("No Redis Cluster master serves slot " + slot + " of key " + key);
+        }
+        return node;
+    }
+
+    /**
+     * Address of the node serving the key, with the credentials and TLS settings of the configured URI.
+     */
+    private RedisURI nodeURI(String key) {
+        if (clusterClient == null) {
+            return redisURI;
+        }
+        RedisURI node = masterFor(key).getUri();
+        return RedisURI.builder(redisURI)
+                .withHost(node.getHost())
+                .withPort(node.getPort())
+                .build();
+    }
+
+    private <V> StatefulRedisConnection<String, V> connect(RedisCodec<String, V> codec, RedisURI uri, String kind) {
+        try {
+            Log.infof("Creating %s Redis connection to: %s", kind, uri.toString());
+            StatefulRedisConnection<String, V> connection = redisClient.connect(codec, uri);
+            Log.debug("Successfully connected to Redis");
+            return connection;
+        } catch (Exception e) {
+            Log.error("Failed to create Redis connection", e);
+            throw new RuntimeException("Failed to create Redis connection", e);
+        }
+    }
+
+    private <C extends StatefulConnection<?, ?>> C track(C connection) {
+        dedicatedConnections.add(connection);
+        return connection;
+    }
+
+    private BoundedAsyncPool<StatefulRedisConnection<String, Object>> getPool(boolean binary, String key) {
+        String poolKey = (binary ? "binary@" : "string@") + nodeFor(key);
+        return pools.computeIfAbsent(poolKey, ignored -> createPool(binary ? BINARY_CODEC : StringCodec.UTF8, nodeURI(key)));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private BoundedAsyncPool<StatefulRedisConnection<String, Object>> createPool(RedisCodec<String, ?> codec, RedisURI uri) {
+        // Connections are released explicitly instead of through a close() proxy
+        return AsyncConnectionPoolSupport.createBoundedObjectPool(
+                () -> (CompletionStage) redisClient.connectAsync(codec, uri), poolConfig, false);
+    }
+}
@@ -1,15 +1,27 @@
 package tech.nelreina.camel.quarkus.redis.stream.component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.camel.Endpoint;
 import org.apache.camel.spi.annotations.Component;
 import org.apache.camel.support.DefaultComponent;
 
-import io.lettuce.core.RedisClient;
 import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulConnection;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import io.quarkus.logging.Log;
+import tech.nelreina.camel.quarkus.redis.stream.view.MaterializedView;
 
 @Component("redis-stream")
 public class RedisStreamComponent extends DefaultComponent {
@@ -24,6 +36,7 @@ public class RedisStreamComponent extends DefaultComponent {
 
     private String redisHosts = "redis://localhost:6379";
     private String redisPassword = "";
+    private boolean cluster = false;
     private String consumerGroupPrefix = "camel";
     private boolean autoCreateGroups = true;
     private boolean autoCreateStreams = true;
@@ -33,7 +46,21 @@ public class RedisStreamComponent extends DefaultComponent {
     private int pollingInterval = 100;
     private String globalHeaderFilters = "";
 
-    private StatefulRedisConnection<String, String> connection;
+    private int poolMaxTotal = 8;
+    private int poolMaxIdle = 8;
+    private int poolMinIdle = 0;
+    private int ioThreadPoolSize = 0;
+    private int computationThreadPoolSize = 0;
+    private ClientResources clientResources;
+    private boolean metricsEnabled = true;
+    private MeterRegistry meterRegistry;
+    private long lagSampleInterval = 0L;
+
+    private volatile RedisConnectionManager connectionManager;
+    private final Map<String, MaterializedView> views = new ConcurrentHashMap<>();
+    private volatile MeterRegistry resolvedMeterRegistry;
+    private volatile ConsumerGroupLagSampler lagSampler;
+    private ScheduledExecutorService lagSamplerExecutor;
 
     @Override
     protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
@@ -75,48 +102,191 @@ public class RedisStreamComponent extends DefaultComponent {
         // Validation will be done at consumer creation time
     }
 
+    /**
+     * Returns the shared connection, in cluster mode the one to an arbitrary master. Commands on a
+     * key must use {@link #getConnection(String)}.
+     */
     public StatefulRedisConnection<String, String> getConnection() {
-        if (connection == null) {
+        return getConnection(null);
+    }
+
+    /**
+     * Returns the shared connection for commands on the key, in cluster mode the connection to the
+     * master serving its slot.
+     */
+    public StatefulRedisConnection<String, String> getConnection(String key) {
+        return getConnectionManager().getSharedConnection(key);
+    }
+
+    /**
+     * Opens a new connection to the node serving the key that is not shared with other endpoints.
+     * Used by consumers issuing blocking reads, which would otherwise stall every command on the
+     * shared connection. The caller owns the returned connection and must hand it back with
+     * {@link #releaseConnection}.
+     */
+    public StatefulRedisConnection<String, String> createDedicatedConnection(String key) {
+        return getConnectionManager().openDedicatedConnection(key);
+    }
+
+    /**
+     * Returns the shared connection using String keys and raw {@code byte[]} values, for endpoints
+     * with {@code binaryPayloads=true}.
+     */
+    public StatefulRedisConnection<String, byte[]> getBinaryConnection(String key) {
+        return getConnectionManager().getSharedBinaryConnection(key);
+    }
+
+    /**
+     * Binary counterpart of {@link #createDedicatedConnection(String)}.
+     */
+    public StatefulRedisConnection<String, byte[]> createDedicatedBinaryConnection(String key) {
+        return getConnectionManager().openDedicatedBinaryConnection(key);
+    }
+
+    public void releaseConnection(StatefulConnection<?, ?> connection) {
+        if (connectionManager != null) {
+            connectionManager.release(connection);
+        }
+    }
+
+    /**
+     * Returns the named view, creating it and binding it in the Camel registry on first use.
+     * Consumers configured with the same view name feed the same instance.
+     */
+    public MaterializedView getOrCreateView(String name, int maxSize) {
+        return views.computeIfAbsent(name, viewName -> {
+            MaterializedView view = new MaterializedView(viewName, maxSize);
+            getCamelContext().getRegistry().bind(viewName, MaterializedView.class, view);
+            Log.infof("Created materialized view %s (maxSize=%d)", viewName, maxSize);
+            return view;
+        });
+    }
+
+    public MaterializedView getView(String name) {
+        return views.get(name);
+    }
+
+    public RedisConnectionManager getConnectionManager() {
+        if (connectionManager == null) {
             synchronized (this) {
-                if (connection == null) {
-                    connection = createConnection();
+                if (connectionManager == null) {
+                    // A cluster can be given several seed nodes
+                    List<RedisURI> redisURIs = new ArrayList<>();
+                    for (String host : redisHosts.split(",")) {
+                        if (host.trim().isEmpty()) {
+                            continue;
+                        }
+                        RedisURI redisURI = RedisURI.create(host.trim());
+                        if (redisPassword != null && !redisPassword.trim().isEmpty()) {
+                            redisURI = RedisURI.builder(redisURI)
+                                .withPassword(redisPassword.toCharArray())
+                                .build();
+                        }
+                        redisURIs.add(redisURI);
+                    }
+                    
+                    // Application supplied resources are shared with other clients and left running on stop
+                    boolean ownsClientResources = clientResources == null;
+                    ClientResources resources = ownsClientResources ? createClientResources() : clientResources;
+                    connectionManager = new RedisConnectionManager(redisURIs, cluster, resources, ownsClientResources, 
+                            poolMaxTotal, poolMaxIdle, poolMinIdle);
                 }
             }
         }
-        return connection;
-    }
-
-    private StatefulRedisConnection<String, String> createConnection() {
-        try {
-            Log.info("Creating Redis connection to: " + redisHosts);
-            
-            RedisURI redisURI = RedisURI.create(redisHosts);
-            
-            if (redisPassword != null && !redisPassword.trim().isEmpty()) {
-                redisURI = RedisURI.builder(redisURI)
-                    .withPassword(redisPassword.toCharArray())
-                    .build();
+        return connectionManager;
+    }
+
+    /**
+     * Registry the component's meters are registered in: the configured {@code meterRegistry}, the
+     * single {@link MeterRegistry} in the Camel registry, or Micrometer's global registry. With
+     * metrics disabled an empty composite registry is returned, whose meters record nothing.
+     */
+    public MeterRegistry getMeterRegistry() {
+        if (resolvedMeterRegistry == null) {
+            synchronized (this) {
+                if (resolvedMeterRegistry == null) {
+                    MeterRegistry registry;
+                    if (!metricsEnabled) {
+                        registry = new CompositeMeterRegistry();
+                    } else if (meterRegistry != null) {
+                        registry = meterRegistry;
+                    } else {
+                        registry = getCamelContext().getRegistry().findSingleByType(MeterRegistry.class);
+                        if (registry == null) {
+                            registry = Metrics.globalRegistry;
+                        }
+                    }
+                    registerConnectionGauges(registry);
+                    resolvedMeterRegistry = registry;
+                }
+            }
+        }
+        return resolvedMeterRegistry;
+    }
+
+    /**
+     * Returns the sampler publishing lag and pending gauges for the consumer groups of this
+     * component, starting it on first use, or {@code null} when {@code lagSampleInterval} is 0.
+     */
+    public ConsumerGroupLagSampler getLagSampler() {
+        if (lagSampler == null && lagSampleInterval > 0) {
+            synchronized (this) {
+                if (lagSampler == null) {
+                    ConsumerGroupLagSampler sampler = new ConsumerGroupLagSampler(key -> getConnection(key).sync(), 
+                            getMeterRegistry(), lagSampleInterval);
+                    lagSamplerExecutor = getCamelContext().getExecutorServiceManager()
+                            .newSingleThreadScheduledExecutor(this, "RedisStreamLagSampler");
+                    // First sample soon after the consumers registered, so readiness does not wait a full interval
+                    lagSamplerExecutor.scheduleWithFixedDelay(sampler, Math.min(1000L, lagSampleInterval), 
+                            lagSampleInterval, TimeUnit.MILLISECONDS);
+                    lagSampler = sampler;
+                }
             }
-            
-            RedisClient redisClient = RedisClient.create(redisURI);
-            StatefulRedisConnection<String, String> conn = redisClient.connect();
-            
-            Log.info("Successfully connected to Redis");
-            return conn;
-            
-        } catch (Exception e) {
-            Log.error("Failed to create Redis connection", e);
-            throw new RuntimeException("Failed to create Redis connection", e);
         }
+        return lagSampler;
+    }
+
+    private void registerConnectionGauges(MeterRegistry registry) {
+        // Bound to the component, the connection manager is replaced when the component restarts
+        Gauge.builder("redis.stream.connections.dedicated", this, 
+                        component -> component.connectionManager != null ? component.connectionManager.getDedicatedConnectionCount() : 0)
+                .description("Dedicated connections held by consumers and producer pipelines")
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("redis.stream.connections.pool.active", this, 
+                        component -> component.connectionManager != null ? component.connectionManager.getPoolActive() : 0)
+                .description("Pooled connections currently borrowed")
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("redis.stream.connections.pool.idle", this, 
+                        component -> component.connectionManager != null ? component.connectionManager.getPoolIdle() : 0)
+                .description("Idle pooled connections")
+                .strongReference(true)
+                .register(registry);
+    }
+
+    private ClientResources createClientResources() {
+        DefaultClientResources.Builder builder = DefaultClientResources.builder();
+        if (ioThreadPoolSize > 0) {
+            builder.ioThreadPoolSize(ioThreadPoolSize);
+        }
+        if (computationThreadPoolSize > 0) {
+            builder.computationThreadPoolSize(computationThreadPoolSize);
+        }
+        return builder.build();
     }
 
     @Override
     protected void doStop() throws Exception {
         super.doStop();
-        if (connection != null) {
-            Log.info("Closing Redis connection");
-            connection.close();
-            connection = null;
+        if (lagSamplerExecutor != null) {
+            getCamelContext().getExecutorServiceManager().shutdownNow(lagSamplerExecutor);
+            lagSamplerExecutor = null;
+            lagSampler = null;
+        }
+        if (connectionManager != null) {
+            connectionManager.close();
+            connectionManager = null;
         }
     }
 
@@ -199,4 +369,80 @@ public class RedisStreamComponent extends DefaultComponent {
     public void setGlobalHeaderFilters(String globalHeaderFilters) {
         this.globalHeaderFilters = globalHeaderFilters;
     }
+
+    public int getPoolMaxTotal() {
+        return poolMaxTotal;
+    }
+
+    public void setPoolMaxTotal(int poolMaxTotal) {
+        this.poolMaxTotal = poolMaxTotal;
+    }
+
+    public int getPoolMaxIdle() {
+        return poolMaxIdle;
+    }
+
+    public void setPoolMaxIdle(int poolMaxIdle) {
+        this.poolMaxIdle = poolMaxIdle;
+    }
+
+    public int getPoolMinIdle() {
+        return poolMinIdle;
+    }
+
+    public void setPoolMinIdle(int poolMinIdle) {
+        this.poolMinIdle = poolMinIdle;
+    }
+
+    public int getIoThreadPoolSize() {
+        return ioThreadPoolSize;
+    }
+
+    public void setIoThreadPoolSize(int ioThreadPoolSize) {
+        this.ioThreadPoolSize = ioThreadPoolSize;
+    }
+
+    public int getComputationThreadPoolSize() {
+        return computationThreadPoolSize;
+    }
+
+    public void setComputationThreadPoolSize(int computationThreadPoolSize) {
+        this.computationThreadPoolSize = computationThreadPoolSize;
+    }
+
+    public ClientResources getClientResources() {
+        return clientResources;
+    }
+
+    public void setClientResources(ClientResources clientResources) {
+        this.clientResources = clientResources;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public long getLagSampleInterval() {
+        return lagSampleInterval;
+    }
+
+    public void setLagSampleInterval(long lagSampleInterval) {
+        this.lagSampleInterval = lagSampleInterval;
+    }
+
+    public boolean isCluster() {
+        return cluster;
+    }
+
+    public void setCluster(boolean cluster) {
+        this.cluster = cluster;
+    }
 }
@@ -28,6 +28,29 @@ public class RedisStreamConfiguration {
     @UriParam(description = "Auto-acknowledge messages", defaultValue = "true")
     private boolean autoAck = true;
 
+    @UriParam(description = "Maximum number of message IDs sent in a single XACK", defaultValue = "100")
+    private int ackBatchSize = 100;
+
+    @UriParam(description = "Interval in milliseconds for flushing pending acknowledgements", defaultValue = "50")
+    private int ackFlushInterval = 50;
+
+    @UriParam(description = "Interval in milliseconds for reclaiming idle pending messages with XAUTOCLAIM (0 disables)",
+              defaultValue = "0")
+    private long reclaimInterval = 0;
+
+    @UriParam(description = "Minimum idle time in milliseconds before a pending message is reclaimed", defaultValue = "60000")
+    private long reclaimMinIdle = 60000;
+
+    @UriParam(description = "Maximum number of messages claimed per XAUTOCLAIM call", defaultValue = "100")
+    private int reclaimBatchSize = 100;
+
+    @UriParam(description = "Number of deliveries after which a failing message is moved to the dead-letter stream (0 disables), values above 1 require reclaimInterval",
+              defaultValue = "0")
+    private int maxDeliveries = 0;
+
+    @UriParam(description = "Dead-letter stream key (default: <streamKeyName>:dlq)")
+    private String deadLetterStream;
+
     @UriParam(description = "Stream start position", defaultValue = ">")
     private String startId = ">";
 
@@ -53,6 +76,93 @@ public class RedisStreamConfiguration {
     @UriParam(description = "Polling interval in milliseconds", defaultValue = "100")
     private int pollingInterval = 100;
 
+    @UriParam(description = "Consumer mode: POLL reads on the scheduled poller, PUSH runs a dedicated XREADGROUP BLOCK loop, "
+              + "REACTIVE reads on demand through the Lettuce reactive API, REPLAY reads the stream history with XRANGE outside any consumer group",
+              defaultValue = "POLL", enums = "POLL,PUSH,REACTIVE,REPLAY")
+    private ConsumerMode consumerMode = ConsumerMode.POLL;
+
+    @UriParam(description = "Maximum number of in-flight messages in REACTIVE mode", defaultValue = "10")
+    private int prefetch = 10;
+
+    @UriParam(description = "Number of group members started for this endpoint, each with its own consumer name and connection",
+              defaultValue = "1")
+    private int concurrentConsumers = 1;
+
+    @UriParam(description = "Number of worker threads processing messages in parallel, striped by aggregateId (0 processes on the consumer thread)",
+              defaultValue = "0")
+    private int processingThreads = 0;
+
+    @UriParam(description = "Run the read loop and message processing on virtual threads (JDK 21+, falls back to platform threads)",
+              defaultValue = "false")
+    private boolean virtualThreads = false;
+
+    @UriParam(description = "Write field values as raw bytes instead of UTF-8 strings, binary payloads are then stored without Base64 and marked encoding=binary. Consumers then deliver every binary payload as a ByteBuffer, otherwise only the marked ones",
+              defaultValue = "false")
+    private boolean binaryPayloads = false;
+
+    @UriParam(description = "Producer compresses payloads larger than this many bytes with Deflate (0 = disabled)",
+              defaultValue = "0")
+    private int compressionThreshold = 0;
+
+    @UriParam(description = "Producer pipelines XADD commands and flushes them in batches of this size (0 = one XADD per exchange on the shared connection)",
+              defaultValue = "0")
+    private int producerBatchSize = 0;
+
+    @UriParam(description = "Maximum time in milliseconds a pipelined XADD waits for its batch to fill before it is flushed",
+              defaultValue = "5")
+    private long producerLinger = 5;
+
+    @UriParam(description = "Publish every element of a collection body as its own message; collections of EventData "
+              + "or Message elements are always published in bulk, other collections are otherwise sent as one JSON array payload",
+              defaultValue = "false")
+    private boolean bulkPublish = false;
+
+    @UriParam(description = "Wrap bulk publishes of a collection body in MULTI/EXEC so all messages are added atomically",
+              defaultValue = "false")
+    private boolean bulkTransaction = false;
+
+    @UriParam(description = "Shard the stream across this many keys named {stream-n}, producers pick the partition by aggregateId (0 or 1 = not partitioned)",
+              defaultValue = "0")
+    private int partitions = 0;
+
+    @UriParam(description = "Keep the latest event per aggregateId in a materialized view bound in the registry under this name")
+    private String materializedView;
+
+    @UriParam(description = "Maximum aggregates held by the materialized view, least recently used ones are evicted", defaultValue = "10000")
+    private int viewMaxSize = 10000;
+
+    @UriParam(description = "Drop duplicate deliveries before they reach the route, duplicates of a processed message are acknowledged", defaultValue = "false")
+    private boolean idempotent = false;
+
+    @UriParam(description = "Header combined with aggregateId as the idempotency key (default: stream entry ID)")
+    private String idempotentHeader;
+
+    @UriParam(description = "Maximum idempotency keys remembered in memory, the oldest are forgotten first", defaultValue = "10000")
+    private int idempotentCacheSize = 10000;
+
+    @UriParam(description = "Also claim idempotency keys in Redis with SET NX PX, so duplicates are detected across instances", 
+              defaultValue = "false")
+    private boolean idempotentShared = false;
+
+    @UriParam(description = "Time in milliseconds shared idempotency keys are kept in Redis", defaultValue = "86400000")
+    private long idempotentWindow = 86400000L;
+
+    @UriParam(description = "REPLAY mode: first entry to replay, as stream ID, epoch millis or ISO-8601 instant", defaultValue = "-")
+    private String replayFrom = "-";
+
+    @UriParam(description = "REPLAY mode: last entry to replay, as stream ID, epoch millis or ISO-8601 instant", defaultValue = "+")
+    private String replayTo = "+";
+
+    @UriParam(description = "REPLAY mode: number of ID sub-ranges fetched in parallel with XRANGE", defaultValue = "1")
+    private int replaySegments = 1;
+
+    @UriParam(description = "REPLAY mode: entries fetched per XRANGE call", defaultValue = "1000")
+    private int replayPageSize = 1000;
+
+    @UriParam(description = "REPLAY mode: ORDERED delivers strictly in stream order, AGGREGATE processes in parallel ordered per aggregateId",
+              defaultValue = "ORDERED")
+    private ReplayOrdering replayOrdering = ReplayOrdering.ORDERED;
+
     @UriParam(description = "Comma-separated list of header filters in format key1=value1,key2=value2")
     private String headerFilters;
     
@@ -63,6 +173,17 @@ public class RedisStreamConfiguration {
         STRING, MAP, OBJECT
     }
 
+    public enum ConsumerMode {
+        POLL, PUSH, REACTIVE, REPLAY
+    }
+
+    public enum ReplayOrdering {
+        /** Every exchange completes before the next one starts, in stream order. */
+        ORDERED,
+        /** Exchanges run in parallel, ordered per aggregateId only. */
+        AGGREGATE
+    }
+
     public String getStreamKeyName() {
         return streamKeyName;
     }
@@ -119,6 +240,62 @@ public class RedisStreamConfiguration {
         this.autoAck = autoAck;
     }
 
+    public int getAckBatchSize() {
+        return ackBatchSize;
+    }
+
+    public void setAckBatchSize(int ackBatchSize) {
+        this.ackBatchSize = ackBatchSize;
+    }
+
+    public int getAckFlushInterval() {
+        return ackFlushInterval;
+    }
+
+    public void setAckFlushInterval(int ackFlushInterval) {
+        this.ackFlushInterval = ackFlushInterval;
+    }
+
+    public long getReclaimInterval() {
+        return reclaimInterval;
+    }
+
+    public void setReclaimInterval(long reclaimInterval) {
+        this.reclaimInterval = reclaimInterval;
+    }
+
+    public long getReclaimMinIdle() {
+        return reclaimMinIdle;
+    }
+
+    public void setReclaimMinIdle(long reclaimMinIdle) {
+        this.reclaimMinIdle = reclaimMinIdle;
+    }
+
+    public int getReclaimBatchSize() {
+        return reclaimBatchSize;
+    }
+
+    public void setReclaimBatchSize(int reclaimBatchSize) {
+        this.reclaimBatchSize = reclaimBatchSize;
+    }
+
+    public int getMaxDeliveries() {
+        return maxDeliveries;
+    }
+
+    public void setMaxDeliveries(int maxDeliveries) {
+        this.maxDeliveries = maxDeliveries;
+    }
+
+    public String getDeadLetterStream() {
+        return deadLetterStream;
+    }
+
+    public void setDeadLetterStream(String deadLetterStream) {
+        this.deadLetterStream = deadLetterStream;
+    }
+
     public String getStartId() {
         return startId;
     }
@@ -183,6 +360,198 @@ public class RedisStreamConfiguration {
         this.pollingInterval = pollingInterval;
     }
 
+    public ConsumerMode getConsumerMode() {
+        return consumerMode;
+    }
+
+    public void setConsumerMode(ConsumerMode consumerMode) {
+        this.consumerMode = consumerMode;
+    }
+
+    public int getConcurrentConsumers() {
+        return concurrentConsumers;
+    }
+
+    public void setConcurrentConsumers(int concurrentConsumers) {
+        this.concurrentConsumers = concurrentConsumers;
+    }
+
+    public int getProcessingThreads() {
+        return processingThreads;
+    }
+
+    public void setProcessingThreads(int processingThreads) {
+        this.processingThreads = processingThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public boolean isBinaryPayloads() {
+        return binaryPayloads;
+    }
+
+    public void setBinaryPayloads(boolean binaryPayloads) {
+        this.binaryPayloads = binaryPayloads;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public int getProducerBatchSize() {
+        return producerBatchSize;
+    }
+
+    public void setProducerBatchSize(int producerBatchSize) {
+        this.producerBatchSize = producerBatchSize;
+    }
+
+    public long getProducerLinger() {
+        return producerLinger;
+    }
+
+    public void setProducerLinger(long producerLinger) {
+        this.producerLinger = producerLinger;
+    }
+
+    public boolean isBulkPublish() {
+        return bulkPublish;
+    }
+
+    public void setBulkPublish(boolean bulkPublish) {
+        this.bulkPublish = bulkPublish;
+    }
+
+    public boolean isBulkTransaction() {
+        return bulkTransaction;
+    }
+
+    public void setBulkTransaction(boolean bulkTransaction) {
+        this.bulkTransaction = bulkTransaction;
+    }
+
+    public String getReplayFrom() {
+        return replayFrom;
+    }
+
+    public void setReplayFrom(String replayFrom) {
+        this.replayFrom = replayFrom;
+    }
+
+    public String getReplayTo() {
+        return replayTo;
+    }
+
+    public void setReplayTo(String replayTo) {
+        this.replayTo = replayTo;
+    }
+
+    public int getReplaySegments() {
+        return replaySegments;
+    }
+
+    public void setReplaySegments(int replaySegments) {
+        this.replaySegments = replaySegments;
+    }
+
+    public int getReplayPageSize() {
+        return replayPageSize;
+    }
+
+    public void setReplayPageSize(int replayPageSize) {
+        this.replayPageSize = replayPageSize;
+    }
+
+    public ReplayOrdering getReplayOrdering() {
+        return replayOrdering;
+    }
+
+    public void setReplayOrdering(ReplayOrdering replayOrdering) {
+        this.replayOrdering = replayOrdering;
+    }
+
+    public String getMaterializedView() {
+        return materializedView;
+    }
+
+    public void setMaterializedView(String materializedView) {
+        this.materializedView = materializedView;
+    }
+
+    public int getViewMaxSize() {
+        return viewMaxSize;
+    }
+
+    public void setViewMaxSize(int viewMaxSize) {
+        this.viewMaxSize = viewMaxSize;
+    }
+
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+
+    public void setIdempotent(boolean idempotent) {
+        this.idempotent = idempotent;
+    }
+
+    public String getIdempotentHeader() {
+        return idempotentHeader;
+    }
+
+    public void setIdempotentHeader(String idempotentHeader) {
+        this.idempotentHeader = idempotentHeader;
+    }
+
+    public int getIdempotentCacheSize() {
+        return idempotentCacheSize;
+    }
+
+    public void setIdempotentCacheSize(int idempotentCacheSize) {
+        this.idempotentCacheSize = idempotentCacheSize;
+    }
+
+    public boolean isIdempotentShared() {
+        return idempotentShared;
+    }
+
+    public void setIdempotentShared(boolean idempotentShared) {
+        this.idempotentShared = idempotentShared;
+    }
+
+    public long getIdempotentWindow() {
+        return idempotentWindow;
+    }
+
+    public void setIdempotentWindow(long idempotentWindow) {
+        this.idempotentWindow = idempotentWindow;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public int getPrefetch() {
+        return prefetch;
+    }
+
+    public void setPrefetch(int prefetch) {
+        this.prefetch = prefetch;
+    }
+
     public String getHeaderFilters() {
         return headerFilters;
     }
@@ -9,8 +9,10 @@ import org.apache.camel.spi.UriParam;
 import org.apache.camel.support.ScheduledPollEndpoint;
 
 import io.lettuce.core.api.StatefulRedisConnection;
+import tech.nelreina.camel.quarkus.redis.stream.consumer.RedisStreamConcurrentConsumer;
 import tech.nelreina.camel.quarkus.redis.stream.consumer.RedisStreamConsumer;
 import tech.nelreina.camel.quarkus.redis.stream.producer.RedisStreamProducer;
+import tech.nelreina.camel.quarkus.redis.stream.util.StreamKeys;
 
 @UriEndpoint(
     firstVersion = "1.0.0",
@@ -33,6 +35,10 @@ public class RedisStreamEndpoint extends ScheduledPollEndpoint {
 
     @Override
     public Producer createProducer() throws Exception {
+        if (StreamKeys.isMultiStream(configuration.getStreamKeyName())) {
+            throw new IllegalArgumentException("Producers publish to a single stream, lists and patterns are only supported by consumers: " 
+                    + configuration.getStreamKeyName());
+        }
         return new RedisStreamProducer(this);
     }
 
@@ -41,18 +47,40 @@ public class RedisStreamEndpoint extends ScheduledPollEndpoint {
         // Validate consumer-specific requirements
         validateConsumerConfiguration();
         
+        // A replay is parallelised with replaySegments, several members would each replay everything
+        if (configuration.getConcurrentConsumers() > 1 
+                && configuration.getConsumerMode() != RedisStreamConfiguration.ConsumerMode.REPLAY) {
+            return new RedisStreamConcurrentConsumer(this, processor);
+        }
+        
         RedisStreamConsumer consumer = new RedisStreamConsumer(this, processor);
         configureConsumer(consumer);
         return consumer;
     }
     
     private void validateConsumerConfiguration() {
-        if (configuration.getGroup() == null || configuration.getGroup().trim().isEmpty()) {
+        // Replays read with XRANGE and do not join a consumer group
+        boolean replay = configuration.getConsumerMode() == RedisStreamConfiguration.ConsumerMode.REPLAY;
+        if (!replay && (configuration.getGroup() == null || configuration.getGroup().trim().isEmpty())) {
             throw new IllegalArgumentException("Consumer group is required for consumer endpoints. Use: redis-stream://stream?group=mygroup&events=Event1,Event2");
         }
         if (configuration.getEvents() == null || configuration.getEvents().trim().isEmpty()) {
             throw new IllegalArgumentException("Events parameter is required for consumer endpoints. Use: redis-stream://stream?group=mygroup&events=Event1,Event2");
         }
+        // Redeliveries only come from the reclaimer, without it a failed message never gets past its first delivery
+        if (!replay && configuration.getMaxDeliveries() > 1 && configuration.getReclaimInterval() <= 0) {
+            throw new IllegalArgumentException("maxDeliveries=" + configuration.getMaxDeliveries() 
+                    + " requires reclaimInterval > 0 to redeliver failed messages. Use: redis-stream://stream?group=mygroup&reclaimInterval=30000&maxDeliveries=5");
+        }
+    }
+
+    /**
+     * Creates a configured group member for {@link RedisStreamConcurrentConsumer}.
+     */
+    public RedisStreamConsumer createMemberConsumer(Processor processor, int memberIndex) throws Exception {
+        RedisStreamConsumer consumer = new RedisStreamConsumer(this, processor, memberIndex);
+        configureConsumer(consumer);
+        return consumer;
     }
 
     @Override
@@ -63,6 +91,10 @@ public class RedisStreamEndpoint extends ScheduledPollEndpoint {
             // Configure polling interval from configuration
             redisConsumer.setDelay(configuration.getPollingInterval());
             redisConsumer.setInitialDelay(0);
+            // Push and reactive modes drive their own reads instead of the scheduler
+            if (configuration.getConsumerMode() != RedisStreamConfiguration.ConsumerMode.POLL) {
+                redisConsumer.setStartScheduler(false);
+            }
         }
     }
 
@@ -82,6 +114,17 @@ public class RedisStreamEndpoint extends ScheduledPollEndpoint {
         this.connection = connection;
     }
 
+    /**
+     * Shared connection for commands on the key, routed to the node serving it in cluster mode.
+     */
+    public StatefulRedisConnection<String, String> getConnection(String key) {
+        return getComponent().getConnection(key);
+    }
+
+    public StatefulRedisConnection<String, byte[]> getBinaryConnection(String key) {
+        return getComponent().getBinaryConnection(key);
+    }
+
     @Override
     public RedisStreamComponent getComponent() {
         return (RedisStreamComponent) super.getComponent();
@@ -0,0 +1,97 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.quarkus.logging.Log;
+
+/**
+ * Collects message IDs to acknowledge and sends them as multi-ID XACK commands
+ * on the async API, so no consumer thread waits for an acknowledgement round trip.
+ * IDs are kept per stream key, a flush issues one XACK per stream that has pending IDs on the
+ * connection serving that stream. IDs of a failed XACK are sent once more with the next flush,
+ * after that they stay pending for the reclaimer.
+ */
+class AckBatcher {
+
+    private final Function<String, RedisAsyncCommands<String, String>> commandsForKey;
+    private final String group;
+    private final int batchSize;
+    private final ConsumerMetrics metrics;
+    private Map<String, List<String>> pending = new HashMap<>();
+    private int pendingCount;
+    private Map<String, List<String>> retries = new HashMap<>();
+
+    /**
+     * @param commandsForKey commands on the node serving a stream key
+     */
+    AckBatcher(Function<String, RedisAsyncCommands<String, String>> commandsForKey, String group, int batchSize, 
+               ConsumerMetrics metrics) {
+        this.commandsForKey = commandsForKey;
+        this.group = group;
+        this.batchSize = Math.max(1, batchSize);
+        this.metrics = metrics;
+    }
+
+    synchronized void add(String streamKey, String messageId) {
+        pending.computeIfAbsent(streamKey, key -> new ArrayList<>()).add(messageId);
+        if (++pendingCount >= batchSize) {
+            flush();
+        }
+    }
+
+    void flush() {
+        Map<String, List<String>> batch;
+        Map<String, List<String>> retryBatch;
+        synchronized (this) {
+            if (pendingCount == 0 && retries.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+            pendingCount = 0;
+            retryBatch = null;
+            if (!retries.isEmpty()) {
+                retryBatch = retries;
+                retries = new HashMap<>();
+            }
+        }
+        
+        batch.forEach((streamKey, ids) -> acknowledge(streamKey, ids, true));
+        if (retryBatch != null) {
+            retryBatch.forEach((streamKey, ids) -> acknowledge(streamKey, ids, false));
+        }
+    }
+
+    private void acknowledge(String streamKey, List<String> ids, boolean retry) {
+        String[] messageIds = ids.toArray(new String[0]);
+        long startNanos = System.nanoTime();
+        try {
+            commandsForKey.apply(streamKey).xack(streamKey, group, messageIds).whenComplete((count, error) -> {
+                metrics.recordAck(startNanos, messageIds.length);
+                if (error != null) {
+                    failed(streamKey, ids, retry, error);
+                } else {
+                    Log.debugf("Acknowledged %d messages on stream %s", count, streamKey);
+                }
+            });
+        } catch (RuntimeException e) {
+            failed(streamKey, ids, retry, e);
+        }
+    }
+
+    private void failed(String streamKey, List<String> ids, boolean retry, Throwable error) {
+        if (retry) {
+            Log.warnf(error, "Failed to acknowledge %d messages on stream %s, retrying with the next flush", ids.size(), streamKey);
+            synchronized (this) {
+                retries.computeIfAbsent(streamKey, key -> new ArrayList<>()).addAll(ids);
+            }
+        } else {
+            Log.errorf(error, "Failed to acknowledge %d messages on stream %s", ids.size(), streamKey);
+        }
+    }
+}
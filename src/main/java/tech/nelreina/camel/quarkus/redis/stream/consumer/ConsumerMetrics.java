@@ -0,0 +1,100 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Consumer meters tagged by stream and group. Every meter is registered once when the consumer
+ * starts, so recording on the hot path is a plain update without lookups or tag allocation.
+ * Group members of one endpoint share the same meters.
+ */
+final class ConsumerMetrics {
+
+    private final Timer poll;
+    private final Timer blockingPoll;
+    private final DistributionSummary pollMessages;
+    private final Counter filtered;
+    private final Counter duplicates;
+    private final Counter dispatched;
+    private final Counter failed;
+    private final Timer processing;
+    private final Timer ack;
+    private final DistributionSummary ackBatch;
+
+    ConsumerMetrics(MeterRegistry registry, String stream, String group) {
+        Tags tags = Tags.of("stream", stream, "group", group != null ? group : "none");
+        this.poll = Timer.builder("redis.stream.consumer.poll")
+                .description("Round trip of a non-blocking read")
+                .tags(tags)
+                .register(registry);
+        // Kept apart, a blocking read mostly measures how long the stream stayed idle
+        this.blockingPoll = Timer.builder("redis.stream.consumer.poll.blocking")
+                .description("Duration of a blocking read, including the wait for new entries")
+                .tags(tags)
+                .register(registry);
+        this.pollMessages = DistributionSummary.builder("redis.stream.consumer.poll.messages")
+                .description("Messages returned per read")
+                .tags(tags)
+                .register(registry);
+        this.filtered = messages(registry, tags, "filtered");
+        this.duplicates = messages(registry, tags, "duplicate");
+        this.dispatched = messages(registry, tags, "dispatched");
+        this.failed = messages(registry, tags, "failed");
+        this.processing = Timer.builder("redis.stream.consumer.processing")
+                .description("Time the route spends processing a message")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.ack = Timer.builder("redis.stream.consumer.ack")
+                .description("Round trip of an XACK command")
+                .tags(tags)
+                .register(registry);
+        this.ackBatch = DistributionSummary.builder("redis.stream.consumer.ack.batch")
+                .description("Message IDs per XACK command")
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static Counter messages(MeterRegistry registry, Tags tags, String outcome) {
+        return Counter.builder("redis.stream.consumer.messages")
+                .description("Messages read, by outcome")
+                .tags(tags)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    void recordPoll(long startNanos, int messages, boolean blocking) {
+        (blocking ? blockingPoll : poll).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        pollMessages.record(messages);
+    }
+
+    void recordFiltered() {
+        filtered.increment();
+    }
+
+    void recordDuplicate() {
+        duplicates.increment();
+    }
+
+    void recordDispatched() {
+        dispatched.increment();
+    }
+
+    void recordFailed() {
+        failed.increment();
+    }
+
+    void recordProcessing(long startNanos) {
+        processing.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordAck(long startNanos, int messageIds) {
+        ack.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        ackBatch.record(messageIds);
+    }
+}
@@ -0,0 +1,98 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.quarkus.logging.Log;
+
+/**
+ * Moves poison messages to a dead-letter stream. The original fields are copied together with
+ * error metadata using pipelined async XADDs, and the source entries are acknowledged with a
+ * single XACK per source stream once every copy has been stored.
+ */
+class DeadLetterPublisher {
+
+    static final String FIELD_PREFIX = "dlq";
+
+    private final Function<String, RedisAsyncCommands<String, Object>> commandsForKey;
+    private final Function<String, Object> valueEncoder;
+    private final String streamKey;
+    private final String group;
+    private final String deadLetterStream;
+
+    /**
+     * @param commandsForKey commands on the node serving a stream key
+     * @param valueEncoder encodes the metadata values for the connection's value codec
+     * @param streamKey    source stream of messages that do not carry their stream key
+     * @param deadLetterStream target stream, or {@code null} to use {@code <source stream>:dlq}
+     */
+    DeadLetterPublisher(Function<String, RedisAsyncCommands<String, Object>> commandsForKey, 
+                        Function<String, Object> valueEncoder, String streamKey, String group, String deadLetterStream) {
+        this.commandsForKey = commandsForKey;
+        this.valueEncoder = valueEncoder;
+        this.streamKey = streamKey;
+        this.group = group;
+        this.deadLetterStream = deadLetterStream;
+    }
+
+    void publish(List<StreamMessage<String, Object>> messages, Map<String, Long> deliveryCounts, Throwable error) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        
+        String failedAt = DateTimeFormatter.ISO_INSTANT.format(Instant.now());
+        Map<String, List<String>> messageIdsByStream = new LinkedHashMap<>();
+        CompletableFuture<?>[] copies = new CompletableFuture<?>[messages.size()];
+        
+        for (int i = 0; i < messages.size(); i++) {
+            StreamMessage<String, Object> message = messages.get(i);
+            String sourceStream = message.getStream() != null ? message.getStream() : streamKey;
+            messageIdsByStream.computeIfAbsent(sourceStream, key -> new ArrayList<>()).add(message.getId());
+            
+            Map<String, Object> fields = new HashMap<>(message.getBody());
+            fields.put("dlqSourceStream", valueEncoder.apply(sourceStream));
+            fields.put("dlqSourceId", valueEncoder.apply(message.getId()));
+            fields.put("dlqGroup", valueEncoder.apply(group));
+            fields.put("dlqDeliveryCount", valueEncoder.apply(String.valueOf(deliveryCounts.getOrDefault(message.getId(), 0L))));
+            fields.put("dlqFailedAt", valueEncoder.apply(failedAt));
+            if (error != null) {
+                fields.put("dlqErrorType", valueEncoder.apply(error.getClass().getName()));
+                fields.put("dlqErrorMessage", valueEncoder.apply(String.valueOf(error.getMessage())));
+            } else {
+                fields.put("dlqErrorMessage", valueEncoder.apply("Maximum deliveries exceeded"));
+            }
+            String target = deadLetterStream != null ? deadLetterStream : sourceStream + ":dlq";
+            copies[i] = commandsForKey.apply(target).xadd(target, fields).toCompletableFuture();
+        }
+        
+        // Only drop the source entries once their copies are safely in the dead-letter stream
+        CompletableFuture.allOf(copies).whenComplete((ignored, copyError) -> {
+            if (copyError != null) {
+                Log.errorf(copyError, "Failed to move %d messages to the dead-letter stream, leaving them pending", 
+                        messages.size());
+                return;
+            }
+            messageIdsByStream.forEach((sourceStream, ids) -> {
+                String[] messageIds = ids.toArray(new String[0]);
+                commandsForKey.apply(sourceStream).xack(sourceStream, group, messageIds).whenComplete((count, ackError) -> {
+                    if (ackError != null) {
+                        Log.errorf(ackError, "Failed to acknowledge %d dead-lettered messages on stream %s", 
+                                messageIds.length, sourceStream);
+                    } else {
+                        Log.warnf("Moved %d messages from stream %s to dead-letter stream %s", messageIds.length, 
+                                sourceStream, deadLetterStream != null ? deadLetterStream : sourceStream + ":dlq");
+                    }
+                });
+            });
+        });
+    }
+}
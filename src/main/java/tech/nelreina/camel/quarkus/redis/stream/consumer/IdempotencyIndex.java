@@ -0,0 +1,292 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.quarkus.logging.Log;
+import tech.nelreina.camel.quarkus.redis.stream.component.RedisStreamConfiguration;
+import tech.nelreina.camel.quarkus.redis.stream.component.RedisStreamEndpoint;
+
+/**
+ * Remembers the keys of recently processed messages so duplicates from reclaims, retries or
+ * producer retries can be dropped before they reach the route.
+ * <p>
+ * Keys are reduced to 64-bit hashes held in an open-addressing table of primitive longs, next to
+ * a ring buffer that evicts the oldest key once {@code maxSize} keys are held, so memory stays
+ * fixed and no object is allocated per message. In shared mode a key is additionally claimed in
+ * Redis with {@code SET NX PX}, so consumers on other instances see it for {@code windowMillis}.
+ * <p>
+ * A key is claimed when its message is dispatched, marked completed once the route succeeded and
+ * released again when processing fails, leaving the message free to be retried. Duplicates of a
+ * completed key are safe to acknowledge, duplicates of a key still in flight are not, because the
+ * original may yet fail. Those wait for the original and are acknowledged once it completes, a
+ * duplicate with its own entry ID would otherwise stay pending for good without a reclaimer.
+ * <p>
+ * One index serves all group members of an endpoint: a message in flight on one member must be
+ * known to the others, whose reclaimers may claim it again.
+ */
+class IdempotencyIndex {
+
+    /**
+     * Outcome of {@link #claim(String)}.
+     */
+    enum Claim {
+        /** First sighting, the message is to be processed */
+        CLAIMED,
+        /** Duplicate of a message that is still being processed */
+        IN_FLIGHT,
+        /** Duplicate of a message that was processed successfully */
+        COMPLETED
+    }
+
+    private static final long EMPTY = 0L;
+    private static final String IN_FLIGHT_VALUE = "0";
+    private static final String COMPLETED_VALUE = "1";
+
+    private final int maxSize;
+    private final long[] table;
+    // Ring position that inserted each table entry and whether it completed, moved along with the entry
+    private final int[] positions;
+    private final boolean[] completed;
+    private final int mask;
+    private final long[] ring;
+    private int ringPosition;
+    private int size;
+    // Duplicates waiting for the original of an in-flight key, by hash. Rare, so boxing is fine
+    private final Map<Long, List<Runnable>> waiters = new HashMap<>();
+    private final Function<String, RedisCommands<String, String>> sharedCommands;
+    private final String sharedKeyPrefix;
+    private final SetArgs claimArgs;
+    private final SetArgs completeArgs;
+
+    /**
+     * @param sharedCommands commands on the node serving a Redis key for the shared mode, {@code null}
+     *                       keeps the index local
+     */
+    IdempotencyIndex(int maxSize, Function<String, RedisCommands<String, String>> sharedCommands, String sharedKeyPrefix,
+                     long windowMillis) {
+        this.maxSize = Math.max(1, maxSize);
+        // At most half full, so probe sequences stay short
+        int capacity = Integer.highestOneBit(this.maxSize * 2 - 1) << 1;
+        this.table = new long[capacity];
+        this.positions = new int[capacity];
+        this.completed = new boolean[capacity];
+        this.mask = capacity - 1;
+        this.ring = new long[this.maxSize];
+        this.sharedCommands = sharedCommands;
+        this.sharedKeyPrefix = sharedKeyPrefix;
+        this.claimArgs = SetArgs.Builder.nx().px(windowMillis);
+        this.completeArgs = SetArgs.Builder.xx().px(windowMillis);
+    }
+
+    /**
+     * Creates the index configured on the endpoint.
+     */
+    static IdempotencyIndex create(RedisStreamEndpoint endpoint) {
+        RedisStreamConfiguration configuration = endpoint.getConfiguration();
+        return new IdempotencyIndex(configuration.getIdempotentCacheSize(), 
+                configuration.isIdempotentShared() ? key -> endpoint.getConnection(key).sync() : null,
+                configuration.getStreamKeyName() + ":dedup:" + configuration.getGroup() + ":", 
+                configuration.getIdempotentWindow());
+    }
+
+    /**
+     * Claims the key, telling whether it has been seen before and if so, whether its message is
+     * still in flight.
+     */
+    Claim claim(String key) {
+        return claim(key, null);
+    }
+
+    /**
+     * Claims the key like {@link #claim(String)}. When this consumer's original of the key is still
+     * in flight, {@code onCompleted} runs once it completes; it is dropped if the original fails.
+     * Keys in flight on other instances are not tracked.
+     */
+    Claim claim(String key, Runnable onCompleted) {
+        long hash = hash(key);
+        synchronized (this) {
+            int slot = find(hash);
+            if (slot >= 0) {
+                if (completed[slot]) {
+                    return Claim.COMPLETED;
+                }
+                if (onCompleted != null) {
+                    waiters.computeIfAbsent(hash, ignored -> new ArrayList<>()).add(onCompleted);
+                }
+                return Claim.IN_FLIGHT;
+            }
+            insert(hash);
+        }
+        if (sharedCommands != null) {
+            try {
+                String sharedKey = sharedKeyPrefix + key;
+                RedisCommands<String, String> commands = sharedCommands.apply(sharedKey);
+                if (commands.set(sharedKey, IN_FLIGHT_VALUE, claimArgs) == null) {
+                    // Claimed by another consumer, which may still fail, so only a completed key is kept
+                    boolean completedElsewhere = COMPLETED_VALUE.equals(commands.get(sharedKey));
+                    synchronized (this) {
+                        if (completedElsewhere) {
+                            markCompleted(hash);
+                        } else {
+                            remove(hash);
+                        }
+                    }
+                    return completedElsewhere ? Claim.COMPLETED : Claim.IN_FLIGHT;
+                }
+            } catch (Exception e) {
+                // Without Redis the local index still catches duplicates seen by this consumer
+                Log.warnf(e, "Failed to claim idempotency key %s in Redis", key);
+            }
+        }
+        return Claim.CLAIMED;
+    }
+
+    /**
+     * Marks the key's message as processed, so its duplicates can be acknowledged.
+     */
+    void complete(String key) {
+        long hash = hash(key);
+        List<Runnable> completedWaiters;
+        synchronized (this) {
+            markCompleted(hash);
+            completedWaiters = waiters.isEmpty() ? null : waiters.remove(hash);
+        }
+        if (completedWaiters != null) {
+            for (Runnable waiter : completedWaiters) {
+                try {
+                    waiter.run();
+                } catch (Exception e) {
+                    Log.warnf(e, "Failed to settle a duplicate of idempotency key %s", key);
+                }
+            }
+        }
+        if (sharedCommands != null) {
+            try {
+                String sharedKey = sharedKeyPrefix + key;
+                sharedCommands.apply(sharedKey).set(sharedKey, COMPLETED_VALUE, completeArgs);
+            } catch (Exception e) {
+                Log.warnf(e, "Failed to complete idempotency key %s in Redis", key);
+            }
+        }
+    }
+
+    /**
+     * Forgets the key so a failed message can be processed again.
+     */
+    void release(String key) {
+        long hash = hash(key);
+        synchronized (this) {
+            remove(hash);
+        }
+        if (sharedCommands != null) {
+            try {
+                String sharedKey = sharedKeyPrefix + key;
+                sharedCommands.apply(sharedKey).del(sharedKey);
+            } catch (Exception e) {
+                Log.warnf(e, "Failed to release idempotency key %s in Redis", key);
+            }
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    private int find(long hash) {
+        for (int slot = slot(hash); table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (table[slot] == hash) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void markCompleted(long hash) {
+        int slot = find(hash);
+        if (slot >= 0) {
+            completed[slot] = true;
+        }
+    }
+
+    private void insert(long hash) {
+        long oldest = ring[ringPosition];
+        if (oldest != EMPTY) {
+            // Oldest key makes room. It may already be gone if it was released, or have been claimed
+            // again through a newer ring position, which then owns it
+            int slot = find(oldest);
+            if (slot >= 0 && positions[slot] == ringPosition) {
+                removeAt(slot);
+            }
+        }
+        ring[ringPosition] = hash;
+
+        int slot = slot(hash);
+        while (table[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = hash;
+        positions[slot] = ringPosition;
+        completed[slot] = false;
+        size++;
+        ringPosition = (ringPosition + 1) % maxSize;
+    }
+
+    private void remove(long hash) {
+        int slot = find(hash);
+        if (slot >= 0) {
+            removeAt(slot);
+        }
+    }
+
+    private void removeAt(int slot) {
+        if (!waiters.isEmpty()) {
+            // Failed or evicted, the waiting duplicates stay pending
+            waiters.remove(table[slot]);
+        }
+        table[slot] = EMPTY;
+        size--;
+
+        // Shift later entries of the probe sequence back so lookups never stop at the hole
+        int hole = slot;
+        for (int next = (hole + 1) & mask; table[next] != EMPTY; next = (next + 1) & mask) {
+            int home = slot(table[next]);
+            boolean reachable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (reachable) {
+                table[hole] = table[next];
+                positions[hole] = positions[next];
+                completed[hole] = completed[next];
+                table[next] = EMPTY;
+                hole = next;
+            }
+        }
+    }
+
+    private int slot(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * FNV-1a over the characters followed by a 64-bit finalizer. Never returns the empty marker.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash == EMPTY ? 1L : hash;
+    }
+}
@@ -0,0 +1,182 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.camel.spi.ClassResolver;
+
+import io.quarkus.logging.Log;
+import tech.nelreina.camel.quarkus.redis.stream.component.RedisStreamConfiguration;
+import tech.nelreina.camel.quarkus.redis.stream.component.RedisStreamConfiguration.PayloadType;
+import tech.nelreina.camel.quarkus.redis.stream.exception.EventDataConversionException;
+import tech.nelreina.camel.quarkus.redis.stream.util.PayloadCompression;
+
+/**
+ * Decodes JSON payloads according to the endpoint's {@code payloadType}. The target class and the
+ * Jackson {@link ObjectReader} are resolved once when the consumer starts and reused for every message.
+ * If the Jackson Blackbird module is on the classpath it is registered to speed up data binding.
+ */
+class PayloadDecoder {
+
+    private static final String BLACKBIRD_MODULE = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+    private static final String BINARY_MIME_TYPE = "binary";
+
+    private final PayloadType payloadType;
+    private final ObjectReader reader;
+    private final boolean binaryPayloads;
+
+    private PayloadDecoder(PayloadType payloadType, ObjectReader reader, boolean binaryPayloads) {
+        this.payloadType = payloadType;
+        this.reader = reader;
+        this.binaryPayloads = binaryPayloads;
+    }
+
+    static PayloadDecoder create(RedisStreamConfiguration configuration, ObjectMapper objectMapper, 
+                                 ClassResolver classResolver) throws ClassNotFoundException {
+        PayloadType payloadType = configuration.getPayloadType() != null ? configuration.getPayloadType() : PayloadType.STRING;
+        boolean binaryPayloads = configuration.isBinaryPayloads();
+        switch (payloadType) {
+            case MAP:
+                return new PayloadDecoder(payloadType, withBlackbird(objectMapper).readerFor(Map.class), binaryPayloads);
+            case OBJECT:
+                if (configuration.getObjectClass() == null || configuration.getObjectClass().trim().isEmpty()) {
+                    throw new IllegalArgumentException("objectClass is required when payloadType is OBJECT");
+                }
+                Class<?> targetClass = classResolver.resolveMandatoryClass(configuration.getObjectClass().trim());
+                return new PayloadDecoder(payloadType, withBlackbird(objectMapper).readerFor(targetClass), binaryPayloads);
+            default:
+                return new PayloadDecoder(PayloadType.STRING, null, binaryPayloads);
+        }
+    }
+
+    private static ObjectMapper withBlackbird(ObjectMapper objectMapper) {
+        if (objectMapper.getRegisteredModuleIds().contains(BLACKBIRD_MODULE)) {
+            return objectMapper;
+        }
+        try {
+            Module module = (Module) Class.forName(BLACKBIRD_MODULE).getDeclaredConstructor().newInstance();
+            Log.debug("Registering Jackson Blackbird module for payload decoding");
+            return objectMapper.copy().registerModule(module);
+        } catch (ClassNotFoundException e) {
+            return objectMapper;
+        } catch (Exception e) {
+            Log.warn("Failed to register Jackson Blackbird module, using default data binding", e);
+            return objectMapper;
+        }
+    }
+
+    /**
+     * Returns the payload as configured. Only JSON payloads are decoded; text payloads, and every
+     * non-binary payload when {@code payloadType=STRING}, are returned as a string.
+     * <p>
+     * Binary payloads are returned as a read-only {@link ByteBuffer} when the encoding field marks
+     * them as raw bytes, which only binary producers write, or when the consumer enabled
+     * {@code binaryPayloads}; the Base64 JSON string written by String codecs is then decoded as
+     * well. Otherwise they stay the string they always were. JSON is decoded straight from the bytes.
+     */
+    Object decode(Object payload, String mimeType, String encoding) {
+        if (payload == null) {
+            return null;
+        }
+        boolean raw = PayloadCompression.isRaw(encoding);
+        if (PayloadCompression.isDeflated(encoding)) {
+            return decodeCompressed(payload, mimeType, raw);
+        }
+        if (BINARY_MIME_TYPE.equals(mimeType) && (raw || binaryPayloads)) {
+            byte[] bytes = payload instanceof byte[] ? (byte[]) payload : ((String) payload).getBytes(StandardCharsets.UTF_8);
+            return raw ? ByteBuffer.wrap(bytes).asReadOnlyBuffer() : binaryFromText(bytes, bytes.length);
+        }
+        return decode(payload, mimeType);
+    }
+
+    Object decode(Object payload, String mimeType) {
+        if (payload instanceof byte[]) {
+            return decode((byte[]) payload, mimeType);
+        }
+        if (reader == null || payload == null || (mimeType != null && !"json".equals(mimeType))) {
+            return payload;
+        }
+        try {
+            return reader.readValue((String) payload);
+        } catch (Exception e) {
+            throw new EventDataConversionException("Failed to decode payload as " + payloadType, e);
+        }
+    }
+
+    /**
+     * Inflates into a per-thread buffer and decodes JSON straight from it, only text and binary
+     * payloads are copied out.
+     */
+    private Object decodeCompressed(Object payload, String mimeType, boolean raw) {
+        ByteBuffer inflated;
+        try {
+            inflated = PayloadCompression.inflate(compressedBytes(payload, raw));
+        } catch (Exception e) {
+            throw new EventDataConversionException("Failed to decompress payload", e);
+        }
+        
+        if (BINARY_MIME_TYPE.equals(mimeType) && (raw || binaryPayloads)) {
+            return raw ? ByteBuffer.wrap(Arrays.copyOf(inflated.array(), inflated.limit())).asReadOnlyBuffer()
+                    : binaryFromText(inflated.array(), inflated.limit());
+        }
+        if (reader == null || (mimeType != null && !"json".equals(mimeType))) {
+            return new String(inflated.array(), 0, inflated.limit(), StandardCharsets.UTF_8);
+        }
+        try {
+            return reader.readValue(inflated.array(), 0, inflated.limit());
+        } catch (Exception e) {
+            throw new EventDataConversionException("Failed to decode payload as " + payloadType, e);
+        }
+    }
+
+    /**
+     * Deflate output is stored raw by binary codecs and Base64 encoded by String codecs. Entries of
+     * binary producers that did not mark raw payloads yet fail Base64 decoding and are taken as-is.
+     */
+    private static byte[] compressedBytes(Object payload, boolean raw) {
+        if (payload instanceof String) {
+            return Base64.getDecoder().decode((String) payload);
+        }
+        byte[] bytes = (byte[]) payload;
+        if (raw) {
+            return bytes;
+        }
+        try {
+            return Base64.getDecoder().decode(bytes);
+        } catch (IllegalArgumentException e) {
+            return bytes;
+        }
+    }
+
+    /**
+     * Decodes the quoted Base64 string Jackson writes for {@code byte[]}. Anything else is taken as
+     * the payload bytes themselves.
+     */
+    private static ByteBuffer binaryFromText(byte[] text, int length) {
+        if (length >= 2 && text[0] == '"' && text[length - 1] == '"') {
+            try {
+                return Base64.getDecoder().decode(ByteBuffer.wrap(text, 1, length - 2)).asReadOnlyBuffer();
+            } catch (IllegalArgumentException e) {
+                // Not Base64, fall through
+            }
+        }
+        return ByteBuffer.wrap(Arrays.copyOf(text, length)).asReadOnlyBuffer();
+    }
+
+    private Object decode(byte[] payload, String mimeType) {
+        if (reader == null || (mimeType != null && !"json".equals(mimeType))) {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+        try {
+            return reader.readValue(payload);
+        } catch (Exception e) {
+            throw new EventDataConversionException("Failed to decode payload as " + payloadType, e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import io.lettuce.core.Limit;
+import io.lettuce.core.Range;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.XAutoClaimArgs;
+import io.lettuce.core.XClaimArgs;
+import io.lettuce.core.XPendingArgs;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.models.stream.ClaimedMessages;
+import io.lettuce.core.models.stream.PendingMessage;
+import io.quarkus.logging.Log;
+
+/**
+ * Periodically claims entries that have been idle in the consumer group's pending entries list
+ * for longer than the configured time, using XAUTOCLAIM, and hands them back to the consumer.
+ * This recovers messages left behind by crashed group members or failed exchanges.
+ * <p>
+ * When a dead-letter publisher is configured, the reclaimer instead pages through the idle entries
+ * with the extended XPENDING form to learn their delivery counts in one call per batch. Entries that
+ * reached {@code maxDeliveries} are moved to the dead-letter stream, the rest are claimed with XCLAIM.
+ */
+class PendingReclaimer implements Runnable {
+
+    private static final String START_ID = "0-0";
+
+    private final RedisCommands<String, Object> commands;
+    private final String streamKey;
+    private final String group;
+    private final String consumerName;
+    private final long minIdleMillis;
+    private final int batchSize;
+    private final BiConsumer<List<StreamMessage<String, Object>>, Map<String, Long>> handler;
+    private final Consumer<String> deletedEntryHandler;
+    private final DeadLetterPublisher deadLetterPublisher;
+    private final long maxDeliveries;
+
+    PendingReclaimer(RedisCommands<String, Object> commands, String streamKey, String group, String consumerName,
+                     long minIdleMillis, int batchSize, BiConsumer<List<StreamMessage<String, Object>>, Map<String, Long>> handler,
+                     Consumer<String> deletedEntryHandler, DeadLetterPublisher deadLetterPublisher, long maxDeliveries) {
+        this.commands = commands;
+        this.streamKey = streamKey;
+        this.group = group;
+        this.consumerName = consumerName;
+        this.minIdleMillis = minIdleMillis;
+        this.batchSize = Math.max(1, batchSize);
+        this.handler = handler;
+        this.deletedEntryHandler = deletedEntryHandler;
+        this.deadLetterPublisher = deadLetterPublisher;
+        this.maxDeliveries = maxDeliveries;
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (deadLetterPublisher != null) {
+                reclaimWithDeliveryCounts();
+            } else {
+                autoClaim();
+            }
+        } catch (Exception e) {
+            Log.warnf("Failed to reclaim pending messages on stream %s: %s", streamKey, e.getMessage());
+        }
+    }
+
+    private void autoClaim() {
+        String cursor = START_ID;
+        int reclaimed = 0;
+        do {
+            ClaimedMessages<String, Object> claimed = commands.xautoclaim(streamKey, 
+                    XAutoClaimArgs.Builder.<String>xautoclaim(groupConsumer(), minIdleMillis, cursor).count(batchSize));
+            
+            List<StreamMessage<String, Object>> messages = withoutDeletedEntries(claimed.getMessages());
+            if (!messages.isEmpty()) {
+                reclaimed += messages.size();
+                handler.accept(messages, Collections.emptyMap());
+            }
+            cursor = claimed.getId();
+        } while (cursor != null && !START_ID.equals(cursor));
+        
+        logReclaimed(reclaimed);
+    }
+
+    private void reclaimWithDeliveryCounts() {
+        Range<String> range = Range.unbounded();
+        int reclaimed = 0;
+        while (true) {
+            List<PendingMessage> pending = commands.xpending(streamKey, 
+                    XPendingArgs.Builder.xpending(group, range, Limit.from(batchSize)).idle(minIdleMillis));
+            if (pending.isEmpty()) {
+                break;
+            }
+            
+            List<String> poisonIds = new ArrayList<>();
+            List<String> retryIds = new ArrayList<>();
+            Map<String, Long> deliveryCounts = new HashMap<>();
+            for (PendingMessage entry : pending) {
+                // XCLAIM below counts as one more delivery
+                deliveryCounts.put(entry.getId(), entry.getRedeliveryCount() + 1);
+                if (entry.getRedeliveryCount() >= maxDeliveries) {
+                    poisonIds.add(entry.getId());
+                } else {
+                    retryIds.add(entry.getId());
+                }
+            }
+            
+            if (!poisonIds.isEmpty()) {
+                deadLetterPublisher.publish(claim(poisonIds), deliveryCounts, null);
+            }
+            if (!retryIds.isEmpty()) {
+                List<StreamMessage<String, Object>> messages = claim(retryIds);
+                if (!messages.isEmpty()) {
+                    reclaimed += messages.size();
+                    handler.accept(messages, deliveryCounts);
+                }
+            }
+            
+            if (pending.size() < batchSize) {
+                break;
+            }
+            range = Range.from(Range.Boundary.excluding(pending.get(pending.size() - 1).getId()), Range.Boundary.unbounded());
+        }
+        
+        logReclaimed(reclaimed);
+    }
+
+    private List<StreamMessage<String, Object>> claim(List<String> messageIds) {
+        List<StreamMessage<String, Object>> claimed = commands.xclaim(streamKey, groupConsumer(), 
+                XClaimArgs.Builder.minIdleTime(minIdleMillis), messageIds.toArray(new String[0]));
+        return withoutDeletedEntries(claimed);
+    }
+
+    private List<StreamMessage<String, Object>> withoutDeletedEntries(List<StreamMessage<String, Object>> claimed) {
+        List<StreamMessage<String, Object>> messages = new ArrayList<>(claimed.size());
+        for (StreamMessage<String, Object> message : claimed) {
+            // Entries deleted from the stream while pending come back without a body
+            if (message.getBody() == null || message.getBody().isEmpty()) {
+                deletedEntryHandler.accept(message.getId());
+            } else {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    private io.lettuce.core.Consumer<String> groupConsumer() {
+        return io.lettuce.core.Consumer.from(group, consumerName);
+    }
+
+    private void logReclaimed(int reclaimed) {
+        if (reclaimed > 0) {
+            Log.infof("Reclaimed %d pending messages on stream %s for consumer %s", reclaimed, streamKey, consumerName);
+        }
+    }
+}
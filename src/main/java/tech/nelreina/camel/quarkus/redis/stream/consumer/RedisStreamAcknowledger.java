@@ -0,0 +1,41 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Acknowledgement handle placed on the exchange when {@code autoAck=false}.
+ * Calling {@link #acknowledge()} queues the message for the consumer's next batched XACK.
+ */
+public class RedisStreamAcknowledger {
+
+    public static final String EXCHANGE_PROPERTY = "RedisStreamAcknowledger";
+
+    private final AckBatcher ackBatcher;
+    private final String streamKey;
+    private final String messageId;
+    private final AtomicBoolean acknowledged = new AtomicBoolean();
+
+    RedisStreamAcknowledger(AckBatcher ackBatcher, String streamKey, String messageId) {
+        this.ackBatcher = ackBatcher;
+        this.streamKey = streamKey;
+        this.messageId = messageId;
+    }
+
+    public void acknowledge() {
+        if (acknowledged.compareAndSet(false, true)) {
+            ackBatcher.add(streamKey, messageId);
+        }
+    }
+
+    public String getStreamKey() {
+        return streamKey;
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public boolean isAcknowledged() {
+        return acknowledged.get();
+    }
+}
@@ -0,0 +1,72 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.Processor;
+import org.apache.camel.support.DefaultConsumer;
+import org.apache.camel.support.service.ServiceHelper;
+
+import io.quarkus.logging.Log;
+import tech.nelreina.camel.quarkus.redis.stream.component.RedisStreamConfiguration;
+import tech.nelreina.camel.quarkus.redis.stream.component.RedisStreamEndpoint;
+
+/**
+ * Runs {@code concurrentConsumers} independent {@link RedisStreamConsumer} group members for one endpoint.
+ * Each member has its own consumer name and read connection, so the group pulls from the stream in parallel.
+ * With {@code idempotent} the members share one index, so a message in flight on one member is not
+ * processed again when another member reclaims it.
+ */
+public class RedisStreamConcurrentConsumer extends DefaultConsumer {
+
+    private final RedisStreamEndpoint endpoint;
+    private final RedisStreamConfiguration configuration;
+    private final List<RedisStreamConsumer> members = new ArrayList<>();
+
+    public RedisStreamConcurrentConsumer(RedisStreamEndpoint endpoint, Processor processor) {
+        super(endpoint, processor);
+        this.endpoint = endpoint;
+        this.configuration = endpoint.getConfiguration();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        
+        IdempotencyIndex idempotencyIndex = configuration.isIdempotent() ? IdempotencyIndex.create(endpoint) : null;
+        for (int i = 0; i < configuration.getConcurrentConsumers(); i++) {
+            RedisStreamConsumer member = endpoint.createMemberConsumer(getProcessor(), i);
+            member.setIdempotencyIndex(idempotencyIndex);
+            member.setRoute(getRoute());
+            member.setRouteId(getRouteId());
+            members.add(member);
+        }
+        ServiceHelper.startService(members);
+        
+        Log.infof("Started %d concurrent Redis Stream consumers: group=%s, stream=%s", 
+                members.size(), configuration.getGroup(), configuration.getStreamKeyName());
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        ServiceHelper.stopService(members);
+        members.clear();
+        super.doStop();
+    }
+
+    @Override
+    protected void doSuspend() throws Exception {
+        ServiceHelper.suspendServices(members);
+        super.doSuspend();
+    }
+
+    @Override
+    protected void doResume() throws Exception {
+        ServiceHelper.resumeServices(members);
+        super.doResume();
+    }
+
+    public List<RedisStreamConsumer> getMembers() {
+        return new ArrayList<>(members);
+    }
+}
@@ -1,10 +1,23 @@
 package tech.nelreina.camel.quarkus.redis.stream.consumer;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -14,27 +27,67 @@ import org.apache.camel.Processor;
 import org.apache.camel.support.ScheduledPollConsumer;
 
 import io.lettuce.core.Consumer;
+import io.lettuce.core.KeyScanArgs;
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.ScanCursor;
 import io.lettuce.core.StreamMessage;
 import io.lettuce.core.XReadArgs;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.reactive.RedisReactiveCommands;
 import io.lettuce.core.api.sync.RedisCommands;
 import io.quarkus.logging.Log;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+import tech.nelreina.camel.quarkus.redis.stream.component.ConsumerGroupLagSampler;
+import tech.nelreina.camel.quarkus.redis.stream.component.RedisConnectionManager;
 import tech.nelreina.camel.quarkus.redis.stream.component.RedisStreamConfiguration;
 import tech.nelreina.camel.quarkus.redis.stream.component.RedisStreamEndpoint;
 import tech.nelreina.camel.quarkus.redis.stream.exception.RedisStreamException;
 import tech.nelreina.camel.quarkus.redis.stream.model.EventData;
 import tech.nelreina.camel.quarkus.redis.stream.util.ConsumerNameGenerator;
 import tech.nelreina.camel.quarkus.redis.stream.util.HeaderFilter;
+import tech.nelreina.camel.quarkus.redis.stream.util.PayloadCompression;
+import tech.nelreina.camel.quarkus.redis.stream.util.StreamKeys;
+import tech.nelreina.camel.quarkus.redis.stream.util.StreamPartitions;
+import tech.nelreina.camel.quarkus.redis.stream.util.VirtualThreads;
+import tech.nelreina.camel.quarkus.redis.stream.view.MaterializedView;
 
 public class RedisStreamConsumer extends ScheduledPollConsumer {
 
+    private static final String IDEMPOTENT_KEY_PROPERTY = "RedisStreamIdempotentKey";
+
     private final RedisStreamEndpoint endpoint;
     private final RedisStreamConfiguration configuration;
-    private RedisCommands<String, String> redisCommands;
+    private List<ReadGroup> readGroups;
+    private final List<StatefulRedisConnection<String, Object>> dedicatedConnections = new ArrayList<>();
+    private ExecutorService readLoopExecutor;
+    private volatile boolean readLoopRunning;
+    private Disposable reactiveSubscription;
+    private StreamReplayer replayer;
+    private ExecutorService replayFetchExecutor;
+    private AckBatcher ackBatcher;
+    private ScheduledExecutorService ackFlushExecutor;
+    private StripedDispatcher dispatcher;
+    private ScheduledExecutorService reclaimExecutor;
+    private DeadLetterPublisher deadLetterPublisher;
+    private final Map<String, Long> deliveryCounts = new ConcurrentHashMap<>();
     private String consumerName;
+    private List<String> streamKeys;
     private Set<String> allowedEvents;
     private HeaderFilter headerFilter;
     private ObjectMapper objectMapper;
+    private PayloadDecoder payloadDecoder;
+    private MaterializedView materializedView;
+    private IdempotencyIndex idempotencyIndex;
+    private IdempotencyIndex sharedIdempotencyIndex;
+    private ConsumerMetrics metrics;
+    private ConsumerGroupLagSampler lagSampler;
+    private final AtomicLong duplicateCount = new AtomicLong();
+    private final AtomicInteger reactiveInFlight = new AtomicInteger();
+    private int memberIndex;
 
     public RedisStreamConsumer(RedisStreamEndpoint endpoint, Processor processor) {
         super(endpoint, processor);
@@ -43,6 +96,14 @@ public class RedisStreamConsumer extends ScheduledPollConsumer {
         this.objectMapper = new ObjectMapper();
     }
 
+    /**
+     * Creates one of several group members started by {@link RedisStreamConcurrentConsumer}.
+     */
+    public RedisStreamConsumer(RedisStreamEndpoint endpoint, Processor processor, int memberIndex) {
+        this(endpoint, processor);
+        this.memberIndex = memberIndex;
+    }
+
     public RedisStreamConsumer(RedisStreamEndpoint endpoint, Processor processor, ObjectMapper objectMapper) {
         super(endpoint, processor);
         this.endpoint = endpoint;
@@ -50,6 +111,14 @@ public class RedisStreamConsumer extends ScheduledPollConsumer {
         this.objectMapper = objectMapper;
     }
 
+    /**
+     * Index shared by the group members of a {@link RedisStreamConcurrentConsumer}, used instead of
+     * one of this consumer's own.
+     */
+    void setIdempotencyIndex(IdempotencyIndex idempotencyIndex) {
+        this.sharedIdempotencyIndex = idempotencyIndex;
+    }
+
     @Override
     protected void doStart() throws Exception {
         super.doStart();
@@ -59,9 +128,12 @@ public class RedisStreamConsumer extends ScheduledPollConsumer {
             throw new RedisStreamException("Redis connection is not available");
         }
         
-        this.redisCommands = connection.sync();
-        this.consumerName = generateConsumerName();
+        this.metrics = new ConsumerMetrics(endpoint.getComponent().getMeterRegistry(), 
+                configuration.getStreamKeyName(), configuration.getGroup());
+        this.streamKeys = resolveStreamKeys();
         this.allowedEvents = parseAllowedEvents();
+        this.payloadDecoder = PayloadDecoder.create(configuration, objectMapper, 
+                endpoint.getCamelContext().getClassResolver());
         
         // Create header filter with merged global and route filters
         this.headerFilter = new HeaderFilter(
@@ -69,10 +141,45 @@ public class RedisStreamConsumer extends ScheduledPollConsumer {
             configuration.getHeaderFilters()
         );
         
-        ensureConsumerGroupAndStream();
+        if (configuration.getMaterializedView() != null && !configuration.getMaterializedView().trim().isEmpty()) {
+            this.materializedView = endpoint.getComponent().getOrCreateView(configuration.getMaterializedView().trim(), 
+                    configuration.getViewMaxSize());
+        }
+        
+        if (configuration.isIdempotent()) {
+            this.idempotencyIndex = sharedIdempotencyIndex != null ? sharedIdempotencyIndex : IdempotencyIndex.create(endpoint);
+        }
+        
+        if (isReplayMode()) {
+            startReplay();
+            return;
+        }
+        
+        this.consumerName = generateConsumerName();
+        for (String streamKey : streamKeys) {
+            ensureConsumerGroupAndStream(streamKey);
+        }
+        registerWithLagSampler();
+        startAckBatcher();
+        
+        if (configuration.getMaxDeliveries() > 0) {
+            this.deadLetterPublisher = new DeadLetterPublisher(key -> streamConnectionFor(key).async(), this::encodeValue, 
+                    streamKeys.get(0), configuration.getGroup(), getDeadLetterStream());
+        }
+        startDispatcher();
+        
+        // Blocking reads and concurrent group members get their own connections so they never stall the shared ones
+        this.readGroups = createReadGroups(isPushMode() || isReactiveMode() || configuration.getConcurrentConsumers() > 1);
+        
+        if (isPushMode()) {
+            startReadLoop();
+        } else if (isReactiveMode()) {
+            startReactiveStream();
+        }
+        startReclaimer();
         
         Log.infof("Started Redis Stream consumer: group=%s, consumer=%s, stream=%s, events=%s, headerFilters=%s (global=%s, route=%s)", 
-                configuration.getGroup(), consumerName, configuration.getStreamKeyName(), configuration.getEvents(), 
+                configuration.getGroup(), consumerName, streamKeys, configuration.getEvents(), 
                 HeaderFilter.mergeFilters(configuration.getGlobalHeaderFilters(), configuration.getHeaderFilters()),
                 configuration.getGlobalHeaderFilters(), configuration.getHeaderFilters());
     }
@@ -80,63 +187,631 @@ public class RedisStreamConsumer extends ScheduledPollConsumer {
     @Override
     protected int poll() throws Exception {
         try {
-            List<StreamMessage<String, String>> messages = redisCommands.xreadgroup(
-                Consumer.from(configuration.getGroup(), consumerName),
-                XReadArgs.StreamOffset.from(configuration.getStreamKeyName(), configuration.getStartId())
-            );
-
             int processedCount = 0;
-            
-            for (StreamMessage<String, String> message : messages) {
-                try {
-                    EventData eventData = mapToEventData(message);
-                    
-                    // Filter events
-                    if (!allowedEvents.contains(eventData.getEvent())) {
-                        Log.debugf("Skipping event: %s (not in allowed events)", eventData.getEvent());
-                        acknowledgeMessage(message.getId());
-                        continue;
-                    }
-                    
-                    // Filter by headers
-                    if (!headerFilter.matches(eventData)) {
-                        Log.debugf("Skipping event: %s (headers don't match filter criteria)", eventData.getEvent());
-                        acknowledgeMessage(message.getId());
-                        continue;
-                    }
-                    
-                    // Create exchange and process
-                    Exchange exchange = createExchange(false);
-                    exchange.getIn().setBody(eventData);
-                    exchange.getIn().setHeader("RedisStreamId", message.getId());
-                    exchange.getIn().setHeader("RedisStreamKey", configuration.getStreamKeyName());
-                    exchange.getIn().setHeader("ConsumerGroup", configuration.getGroup());
-                    
-                    getProcessor().process(exchange);
-                    
-                    // Auto-acknowledge if configured
-                    if (configuration.isAutoAck()) {
-                        acknowledgeMessage(message.getId());
-                    }
-                    
-                    processedCount++;
-                    
-                } catch (Exception e) {
-                    Log.errorf(e, "Error processing message: %s", message.getId());
-                    // Don't acknowledge failed messages
-                    handleProcessingError(message, e);
-                }
+            for (ReadGroup readGroup : readGroups) {
+                processedCount += processMessages(readMessages(readGroup));
             }
-            
             return processedCount;
-            
         } catch (Exception e) {
             return 0;
         }
     }
 
+    private List<StreamMessage<String, Object>> readMessages(ReadGroup readGroup) {
+        XReadArgs readArgs = XReadArgs.Builder.count(configuration.getMaxMessages());
+        if (isPushMode()) {
+            readArgs.block(configuration.getBlockTimeout());
+        }
+        // All partitions and streams of the group are read with one XREADGROUP
+        long startNanos = System.nanoTime();
+        List<StreamMessage<String, Object>> messages = readGroup.commands().xreadgroup(
+            Consumer.from(configuration.getGroup(), consumerName),
+            readArgs,
+            readGroup.offsets
+        );
+        metrics.recordPoll(startNanos, messages.size(), isPushMode());
+        return messages;
+    }
+
+    /**
+     * Expands the endpoint's stream names into the keys to read: partitions of each named stream
+     * plus the streams currently matching any pattern.
+     */
+    private List<String> resolveStreamKeys() {
+        List<String> keys = new ArrayList<>();
+        for (String name : StreamKeys.names(configuration.getStreamKeyName())) {
+            if (StreamKeys.isPattern(name)) {
+                keys.addAll(scanStreams(name));
+            } else {
+                keys.addAll(StreamPartitions.streamKeys(name, configuration.getPartitions()));
+            }
+        }
+        List<String> distinctKeys = keys.stream().distinct().collect(Collectors.toList());
+        if (distinctKeys.isEmpty()) {
+            throw new RedisStreamException("No streams match '" + configuration.getStreamKeyName() + "'");
+        }
+        return distinctKeys;
+    }
+
+    private List<String> scanStreams(String pattern) {
+        List<String> keys = new ArrayList<>();
+        KeyScanArgs scanArgs = KeyScanArgs.Builder.matches(pattern).type("stream").limit(500);
+        // Every master holds its own part of the keyspace
+        for (StatefulRedisConnection<String, String> connection : endpoint.getComponent().getConnectionManager().getSharedMasterConnections()) {
+            RedisCommands<String, String> commands = connection.sync();
+            KeyScanCursor<String> cursor = commands.scan(scanArgs);
+            keys.addAll(cursor.getKeys());
+            while (!cursor.isFinished()) {
+                cursor = commands.scan(ScanCursor.of(cursor.getCursor()), scanArgs);
+                keys.addAll(cursor.getKeys());
+            }
+        }
+        Log.infof("Pattern '%s' matched streams: %s", pattern, keys);
+        return keys;
+    }
+
+    /**
+     * Groups the streams for XREADGROUP. A multi-key command must stay within one slot on a cluster,
+     * so there is one group per slot there, and a single group for all streams otherwise.
+     */
+    private List<ReadGroup> createReadGroups(boolean dedicatedConnections) {
+        RedisConnectionManager connectionManager = endpoint.getComponent().getConnectionManager();
+        Map<Integer, List<String>> keysBySlot = new LinkedHashMap<>();
+        for (String streamKey : streamKeys) {
+            keysBySlot.computeIfAbsent(connectionManager.slotFor(streamKey), slot -> new ArrayList<>()).add(streamKey);
+        }
+        List<ReadGroup> groups = new ArrayList<>(keysBySlot.size());
+        for (List<String> keys : keysBySlot.values()) {
+            groups.add(new ReadGroup(createReadOffsets(keys), dedicatedConnections ? openReadConnection(keys.get(0)) : null));
+        }
+        return groups;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private XReadArgs.StreamOffset<String>[] createReadOffsets(List<String> keys) {
+        XReadArgs.StreamOffset<String>[] offsets = new XReadArgs.StreamOffset[keys.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = XReadArgs.StreamOffset.from(keys.get(i), configuration.getStartId());
+        }
+        return offsets;
+    }
+
+    private int processMessages(List<StreamMessage<String, Object>> messages) {
+        int processedCount = 0;
+        
+        for (StreamMessage<String, Object> message : messages) {
+            Exchange exchange = null;
+            try {
+                exchange = createStreamExchange(message);
+                if (exchange == null) {
+                    continue;
+                }
+                
+                if (dispatcher != null) {
+                    // Same aggregate goes to the same worker, keeping its events in order
+                    EventData eventData = exchange.getIn().getBody(EventData.class);
+                    String orderingKey = eventData.getAggregateId() != null ? eventData.getAggregateId() : message.getId();
+                    Exchange dispatched = exchange;
+                    dispatcher.dispatch(orderingKey, () -> processExchange(message, dispatched));
+                } else {
+                    processExchange(message, exchange);
+                }
+                
+                metrics.recordDispatched();
+                processedCount++;
+                
+            } catch (InterruptedException e) {
+                // Stopping while waiting for a worker, not a delivery failure: this entry and the rest
+                // of the batch stay pending for the next read or the reclaimer
+                Thread.currentThread().interrupt();
+                Log.debugf("Interrupted before dispatching message: %s", message.getId());
+                releaseIdempotentKey(exchange);
+                break;
+            } catch (Exception e) {
+                Log.errorf(e, "Error processing message: %s", message.getId());
+                metrics.recordFailed();
+                // Don't acknowledge failed messages
+                handleProcessingError(message, e);
+            }
+        }
+        
+        // Send the acknowledgements collected for this batch in one XACK
+        if (ackBatcher != null) {
+            ackBatcher.flush();
+        }
+        
+        return processedCount;
+    }
+
+    /**
+     * Decodes and filters a stream message. Returns {@code null} when the message is filtered out,
+     * in which case it has already been queued for acknowledgement.
+     */
+    private Exchange createStreamExchange(StreamMessage<String, Object> message) throws Exception {
+        Map<String, Object> fields = message.getBody();
+        
+        // Filter events before decoding anything else
+        String event = fieldValue(fields, "event");
+        if (!allowedEvents.contains(event)) {
+            Log.debugf("Skipping event: %s (not in allowed events)", event);
+            metrics.recordFiltered();
+            acknowledgeSkipped(message);
+            return null;
+        }
+        
+        // Filter by headers, scanning the raw JSON without building a map
+        Object headers = fields.get("headers");
+        boolean headersMatch = headers instanceof byte[] 
+                ? headerFilter.matchesJson((byte[]) headers) : headerFilter.matchesJson((String) headers);
+        if (!headersMatch) {
+            Log.debugf("Skipping event: %s (headers don't match filter criteria)", event);
+            metrics.recordFiltered();
+            acknowledgeSkipped(message);
+            return null;
+        }
+        
+        // Only messages that will be dispatched pay for the full decode
+        EventData eventData = mapToEventData(message);
+        String idempotentKey = null;
+        if (idempotencyIndex != null) {
+            idempotentKey = idempotentKey(message, eventData);
+            IdempotencyIndex.Claim claim = idempotencyIndex.claim(idempotentKey, () -> acknowledgeSkipped(message));
+            if (claim != IdempotencyIndex.Claim.CLAIMED) {
+                Log.debugf("Skipping duplicate message: %s (key %s, %s)", message.getId(), idempotentKey, claim);
+                duplicateCount.incrementAndGet();
+                metrics.recordDuplicate();
+                if (claim == IdempotencyIndex.Claim.COMPLETED) {
+                    acknowledgeSkipped(message);
+                } else {
+                    // The original may still fail, this copy stays pending until the original completes
+                    // and acknowledges it, or is looked at again when reclaimed
+                    deliveryCounts.remove(deliveryKey(message));
+                }
+                return null;
+            }
+        }
+        if (materializedView != null) {
+            // Updated on the read thread, so the view follows stream order even with parallel workers
+            materializedView.update(eventData);
+        }
+        
+        Exchange exchange = createExchange(false);
+        exchange.getIn().setBody(eventData);
+        exchange.getIn().setHeader("RedisStreamId", message.getId());
+        exchange.getIn().setHeader("RedisStreamKey", streamOf(message));
+        exchange.getIn().setHeader("ConsumerGroup", configuration.getGroup());
+        if (idempotentKey != null) {
+            exchange.setProperty(IDEMPOTENT_KEY_PROPERTY, idempotentKey);
+        }
+        if (!configuration.isAutoAck() && ackBatcher != null) {
+            exchange.setProperty(RedisStreamAcknowledger.EXCHANGE_PROPERTY, 
+                    new RedisStreamAcknowledger(ackBatcher, streamOf(message), message.getId()));
+        }
+        return exchange;
+    }
+
+    private void processExchange(StreamMessage<String, Object> message, Exchange exchange) {
+        long startNanos = System.nanoTime();
+        try {
+            getProcessor().process(exchange);
+        } catch (Exception e) {
+            exchange.setException(e);
+        }
+        metrics.recordProcessing(startNanos);
+        completeExchange(message, exchange);
+    }
+
+    private void completeExchange(StreamMessage<String, Object> message, Exchange exchange) {
+        if (exchange.getException() != null) {
+            Log.errorf(exchange.getException(), "Error processing message: %s", message.getId());
+            metrics.recordFailed();
+            releaseIdempotentKey(exchange);
+            // Don't acknowledge failed messages
+            handleProcessingError(message, exchange.getException());
+            return;
+        }
+        
+        deliveryCounts.remove(deliveryKey(message));
+        String idempotentKey = exchange.getProperty(IDEMPOTENT_KEY_PROPERTY, String.class);
+        if (idempotentKey != null) {
+            // From now on duplicates are safe to acknowledge
+            idempotencyIndex.complete(idempotentKey);
+        }
+        
+        // Auto-acknowledge if configured
+        if (configuration.isAutoAck() && ackBatcher != null) {
+            ackBatcher.add(streamOf(message), message.getId());
+        }
+    }
+
+    /**
+     * Lets the message through again after its exchange failed or was never dispatched.
+     */
+    private void releaseIdempotentKey(Exchange exchange) {
+        String idempotentKey = exchange != null ? exchange.getProperty(IDEMPOTENT_KEY_PROPERTY, String.class) : null;
+        if (idempotentKey != null) {
+            idempotencyIndex.release(idempotentKey);
+        }
+    }
+
+    /**
+     * Stream entry ID by default, or aggregateId plus the configured header so retried publishes of
+     * the same business event, which get new entry IDs, are caught too.
+     */
+    private String idempotentKey(StreamMessage<String, Object> message, EventData eventData) {
+        String header = configuration.getIdempotentHeader();
+        if (header != null && eventData.getHeaders() != null) {
+            Object value = eventData.getHeaders().get(header);
+            if (value != null) {
+                return eventData.getAggregateId() + ':' + value;
+            }
+        }
+        return deliveryKey(message);
+    }
+
+    private void registerWithLagSampler() {
+        this.lagSampler = endpoint.getComponent().getLagSampler();
+        if (lagSampler != null) {
+            for (String streamKey : streamKeys) {
+                lagSampler.register(streamKey, configuration.getGroup());
+            }
+        }
+    }
+
+    private void unregisterFromLagSampler() {
+        if (lagSampler != null) {
+            for (String streamKey : streamKeys) {
+                lagSampler.unregister(streamKey, configuration.getGroup());
+            }
+            lagSampler = null;
+        }
+    }
+
+    private void acknowledgeSkipped(StreamMessage<String, Object> message) {
+        deliveryCounts.remove(deliveryKey(message));
+        // Replays read outside a consumer group and have nothing to acknowledge
+        if (ackBatcher != null) {
+            ackBatcher.add(streamOf(message), message.getId());
+        }
+    }
+
+    private void processReclaimed(List<StreamMessage<String, Object>> messages, Map<String, Long> counts) {
+        for (StreamMessage<String, Object> message : messages) {
+            Long count = counts.get(message.getId());
+            if (count != null) {
+                deliveryCounts.put(deliveryKey(message), count);
+            }
+        }
+        processMessages(messages);
+    }
+
+    private String streamOf(StreamMessage<String, Object> message) {
+        return message.getStream() != null ? message.getStream() : configuration.getStreamKeyName();
+    }
+
+    /**
+     * Entry IDs are only unique within one stream, so delivery counts are tracked per stream and ID.
+     */
+    private String deliveryKey(StreamMessage<String, Object> message) {
+        return streamOf(message) + '/' + message.getId();
+    }
+
+    private void startReactiveStream() {
+        this.readLoopRunning = true;
+        
+        int prefetch = Math.max(1, configuration.getPrefetch());
+        XReadArgs readArgs = XReadArgs.Builder.count(prefetch).block(configuration.getBlockTimeout());
+        Consumer<String> groupConsumer = Consumer.from(configuration.getGroup(), consumerName);
+        
+        // Hand messages off the Redis I/O thread before they enter the route
+        String name = "RedisStreamReactive[" + configuration.getStreamKeyName() + "]";
+        ThreadFactory threadFactory = configuration.isVirtualThreads() ? virtualThreadFactory(name) : null;
+        this.readLoopExecutor = threadFactory != null 
+                ? Executors.newSingleThreadExecutor(threadFactory)
+                : endpoint.getCamelContext().getExecutorServiceManager().newSingleThreadExecutor(this, name);
+        
+        // A new XREADGROUP is only issued once downstream demand frees a slot, so at most
+        // prefetch messages are in flight and at most prefetch more are buffered
+        List<Flux<StreamMessage<String, Object>>> reads = new ArrayList<>(readGroups.size());
+        for (ReadGroup readGroup : readGroups) {
+            RedisReactiveCommands<String, Object> reactiveCommands = readGroup.connection.reactive();
+            reads.add(Flux.defer(() -> {
+                        long startNanos = System.nanoTime();
+                        return reactiveCommands.xreadgroup(groupConsumer, readArgs, readGroup.offsets)
+                                .collectList()
+                                .doOnNext(messages -> metrics.recordPoll(startNanos, messages.size(), true))
+                                .flatMapIterable(messages -> messages);
+                    })
+                    .repeat(() -> readLoopRunning)
+                    .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, Duration.ofMillis(configuration.getPollingInterval()))
+                            .filter(error -> readLoopRunning)
+                            .doBeforeRetry(signal -> Log.warnf("Error reading from stream %s, retrying in %d ms: %s", 
+                                    configuration.getStreamKeyName(), configuration.getPollingInterval(), 
+                                    signal.failure().getMessage()))));
+        }
+        this.reactiveSubscription = Flux.merge(Flux.fromIterable(reads), reads.size(), prefetch)
+                .publishOn(Schedulers.fromExecutorService(readLoopExecutor), prefetch)
+                .flatMap(this::processMessageAsync, prefetch)
+                .subscribe(null, error -> {
+                    if (readLoopRunning) {
+                        Log.errorf(error, "Reactive consumer for stream %s terminated", configuration.getStreamKeyName());
+                    }
+                });
+    }
+
+    private Mono<Void> processMessageAsync(StreamMessage<String, Object> message) {
+        Exchange exchange;
+        try {
+            exchange = createStreamExchange(message);
+        } catch (Exception e) {
+            Log.errorf(e, "Error processing message: %s", message.getId());
+            metrics.recordFailed();
+            // Don't acknowledge failed messages
+            handleProcessingError(message, e);
+            return Mono.empty();
+        }
+        if (exchange == null) {
+            flushAcksWhenIdle();
+            return Mono.empty();
+        }
+        
+        metrics.recordDispatched();
+        reactiveInFlight.incrementAndGet();
+        return Mono.create(sink -> {
+            long startNanos = System.nanoTime();
+            getAsyncProcessor().process(exchange, doneSync -> {
+                metrics.recordProcessing(startNanos);
+                completeExchange(message, exchange);
+                reactiveInFlight.decrementAndGet();
+                flushAcksWhenIdle();
+                sink.success();
+            });
+        });
+    }
+
+    /**
+     * Reactive reads have no batch boundary to flush at. Acknowledgements are sent once nothing is
+     * in flight anymore, under load the batcher sends them whenever ackBatchSize is reached.
+     */
+    private void flushAcksWhenIdle() {
+        if (ackBatcher != null && reactiveInFlight.get() == 0) {
+            ackBatcher.flush();
+        }
+    }
+
+    private void startReplay() {
+        // Large XRANGE replies would hold up everything else on the shared connection, so every node
+        // serving a replayed stream gets a dedicated one
+        RedisConnectionManager connectionManager = endpoint.getComponent().getConnectionManager();
+        Map<String, RedisCommands<String, Object>> commandsByNode = new HashMap<>();
+        Map<String, RedisCommands<String, Object>> replayCommands = new HashMap<>();
+        for (String streamKey : streamKeys) {
+            replayCommands.put(streamKey, commandsByNode.computeIfAbsent(connectionManager.nodeFor(streamKey), 
+                    node -> openReadConnection(streamKey).sync()));
+        }
+        
+        if (configuration.getReplayOrdering() == RedisStreamConfiguration.ReplayOrdering.AGGREGATE) {
+            startDispatcher();
+            if (dispatcher == null) {
+                int stripes = Math.max(1, configuration.getReplaySegments());
+                this.dispatcher = new StripedDispatcher(endpoint.getCamelContext().getExecutorServiceManager(), this,
+                        "RedisStreamReplayWorker[" + configuration.getStreamKeyName() + "]", stripes, 
+                        stripes * configuration.getReplayPageSize(), null);
+            }
+        }
+        
+        int segments = Math.max(1, configuration.getReplaySegments());
+        this.replayFetchExecutor = endpoint.getCamelContext().getExecutorServiceManager()
+                .newFixedThreadPool(this, "RedisStreamReplayFetch[" + configuration.getStreamKeyName() + "]", segments);
+        this.replayer = new StreamReplayer(replayCommands::get, streamKeys, configuration.getReplayFrom(), 
+                configuration.getReplayTo(), segments, configuration.getReplayPageSize(), replayFetchExecutor, 
+                this::processMessages);
+        
+        this.readLoopRunning = true;
+        this.readLoopExecutor = endpoint.getCamelContext().getExecutorServiceManager()
+                .newSingleThreadExecutor(this, "RedisStreamReplay[" + configuration.getStreamKeyName() + "]");
+        readLoopExecutor.submit(replayer);
+        
+        Log.infof("Started Redis Stream replay: streams=%s, from=%s, to=%s, segments=%d, ordering=%s", 
+                streamKeys, configuration.getReplayFrom(), configuration.getReplayTo(), segments, 
+                configuration.getReplayOrdering());
+    }
+
+    /**
+     * Number of entries delivered so far in REPLAY mode.
+     */
+    public long getReplayedCount() {
+        return replayer != null ? replayer.getReplayedCount() : 0L;
+    }
+
+    /**
+     * Estimated fraction of the replay range delivered, between 0 and 1.
+     */
+    public double getReplayProgress() {
+        return replayer != null ? replayer.getProgress() : 0.0;
+    }
+
+    public boolean isReplayComplete() {
+        return replayer != null && replayer.isComplete();
+    }
+
+    private void startDispatcher() {
+        int processingThreads = configuration.getProcessingThreads();
+        String name = "RedisStreamWorker[" + configuration.getStreamKeyName() + "]";
+        ThreadFactory threadFactory = null;
+        if (configuration.isVirtualThreads()) {
+            threadFactory = virtualThreadFactory(name);
+            // Virtual threads are cheap, so every message of a batch gets its own one by default
+            if (threadFactory != null && processingThreads <= 0) {
+                processingThreads = configuration.getMaxMessages();
+            }
+        }
+        if (processingThreads > 0) {
+            this.dispatcher = new StripedDispatcher(endpoint.getCamelContext().getExecutorServiceManager(), this,
+                    name, processingThreads, processingThreads * configuration.getMaxMessages(), threadFactory);
+        }
+    }
+
+    private ThreadFactory virtualThreadFactory(String name) {
+        ThreadFactory threadFactory = VirtualThreads.newThreadFactory(name);
+        if (threadFactory == null) {
+            Log.warnf("Virtual threads requested for stream %s but not supported by this JVM, using platform threads", 
+                    configuration.getStreamKeyName());
+        }
+        return threadFactory;
+    }
+
+    private void stopDispatcher() {
+        if (dispatcher != null) {
+            // Let in-flight exchanges finish so their acknowledgements are not lost
+            dispatcher.shutdown(30000L);
+            dispatcher = null;
+        }
+    }
+
+    private void startReclaimer() {
+        // One reclaimer per consumer group is enough, concurrent members leave it to the first one
+        if (configuration.getReclaimInterval() <= 0 || memberIndex > 0) {
+            return;
+        }
+        List<PendingReclaimer> reclaimers = new ArrayList<>(streamKeys.size());
+        for (String streamKey : streamKeys) {
+            reclaimers.add(new PendingReclaimer(streamConnectionFor(streamKey).sync(), streamKey, 
+                    configuration.getGroup(), consumerName, configuration.getReclaimMinIdle(), 
+                    configuration.getReclaimBatchSize(), this::processReclaimed, 
+                    messageId -> ackBatcher.add(streamKey, messageId), 
+                    deadLetterPublisher, configuration.getMaxDeliveries()));
+        }
+        this.reclaimExecutor = endpoint.getCamelContext().getExecutorServiceManager()
+                .newSingleThreadScheduledExecutor(this, "RedisStreamReclaimer[" + configuration.getStreamKeyName() + "]");
+        reclaimExecutor.scheduleWithFixedDelay(() -> reclaimers.forEach(PendingReclaimer::run), 
+                configuration.getReclaimInterval(), configuration.getReclaimInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    private String getDeadLetterStream() {
+        if (configuration.getDeadLetterStream() != null && !configuration.getDeadLetterStream().trim().isEmpty()) {
+            return configuration.getDeadLetterStream();
+        }
+        // Multi-stream consumers dead-letter into one stream per source
+        if (StreamKeys.isMultiStream(configuration.getStreamKeyName())) {
+            return null;
+        }
+        return configuration.getStreamKeyName() + ":dlq";
+    }
+
+    private void stopReclaimer() {
+        if (reclaimExecutor != null) {
+            endpoint.getCamelContext().getExecutorServiceManager().shutdownGraceful(reclaimExecutor);
+            reclaimExecutor = null;
+        }
+    }
+
+    private void startAckBatcher() {
+        this.ackBatcher = new AckBatcher(key -> endpoint.getConnection(key).async(), configuration.getGroup(), configuration.getAckBatchSize(), metrics);
+        
+        // Manual acknowledgements arrive outside a poll batch, flush them on a short window
+        if (configuration.getAckFlushInterval() > 0) {
+            this.ackFlushExecutor = endpoint.getCamelContext().getExecutorServiceManager()
+                    .newSingleThreadScheduledExecutor(this, "RedisStreamAckFlusher[" + configuration.getStreamKeyName() + "]");
+            ackFlushExecutor.scheduleWithFixedDelay(ackBatcher::flush, configuration.getAckFlushInterval(), 
+                    configuration.getAckFlushInterval(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void stopAckBatcher() {
+        if (ackFlushExecutor != null) {
+            endpoint.getCamelContext().getExecutorServiceManager().shutdown(ackFlushExecutor);
+            ackFlushExecutor = null;
+        }
+        if (ackBatcher != null) {
+            ackBatcher.flush();
+        }
+    }
+
+    private boolean isPushMode() {
+        return configuration.getConsumerMode() == RedisStreamConfiguration.ConsumerMode.PUSH;
+    }
+
+    private boolean isReactiveMode() {
+        return configuration.getConsumerMode() == RedisStreamConfiguration.ConsumerMode.REACTIVE;
+    }
+
+    private boolean isReplayMode() {
+        return configuration.getConsumerMode() == RedisStreamConfiguration.ConsumerMode.REPLAY;
+    }
+
+    private void startReadLoop() {
+        this.readLoopRunning = true;
+        String name = "RedisStreamReadLoop[" + configuration.getStreamKeyName() + "]";
+        ThreadFactory threadFactory = configuration.isVirtualThreads() ? virtualThreadFactory(name) : null;
+        // One blocking loop per read group, a single one unless the streams span cluster slots
+        this.readLoopExecutor = threadFactory != null 
+                ? Executors.newFixedThreadPool(readGroups.size(), threadFactory)
+                : endpoint.getCamelContext().getExecutorServiceManager().newFixedThreadPool(this, name, readGroups.size());
+        for (ReadGroup readGroup : readGroups) {
+            readLoopExecutor.submit(() -> runReadLoop(readGroup));
+        }
+    }
+
+    private void runReadLoop(ReadGroup readGroup) {
+        while (readLoopRunning) {
+            if (isSuspendingOrSuspended()) {
+                pauseReadLoop();
+                continue;
+            }
+            try {
+                processMessages(readMessages(readGroup));
+            } catch (Exception e) {
+                if (!readLoopRunning) {
+                    break;
+                }
+                Log.warnf("Error reading from stream %s, retrying in %d ms: %s", 
+                        configuration.getStreamKeyName(), configuration.getPollingInterval(), e.getMessage());
+                pauseReadLoop();
+            }
+        }
+        Log.debugf("Read loop finished for consumer: %s", consumerName);
+    }
+
+    private void pauseReadLoop() {
+        try {
+            Thread.sleep(configuration.getPollingInterval());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            readLoopRunning = false;
+        }
+    }
+
+    private void stopReadLoop() {
+        readLoopRunning = false;
+        if (replayer != null) {
+            replayer.stop();
+        }
+        if (replayFetchExecutor != null) {
+            endpoint.getCamelContext().getExecutorServiceManager().shutdownNow(replayFetchExecutor);
+            replayFetchExecutor = null;
+        }
+        if (reactiveSubscription != null) {
+            reactiveSubscription.dispose();
+            reactiveSubscription = null;
+        }
+        if (readLoopExecutor != null) {
+            // Give an in-flight XREADGROUP BLOCK the chance to return before closing its connection
+            endpoint.getCamelContext().getExecutorServiceManager()
+                    .shutdownGraceful(readLoopExecutor, configuration.getBlockTimeout() + 1000L);
+            readLoopExecutor = null;
+        }
+        for (StatefulRedisConnection<String, Object> connection : dedicatedConnections) {
+            endpoint.getComponent().releaseConnection(connection);
+        }
+        dedicatedConnections.clear();
+    }
+
     private String generateConsumerName() {
         if (configuration.getConsumerName() != null && !configuration.getConsumerName().trim().isEmpty()) {
+            if (configuration.getConcurrentConsumers() > 1) {
+                return configuration.getConsumerName() + "-" + (memberIndex + 1);
+            }
             return configuration.getConsumerName();
         }
         return ConsumerNameGenerator.generateConsumerName(configuration.getGroup());
@@ -149,26 +824,27 @@ public class RedisStreamConsumer extends ScheduledPollConsumer {
                 .collect(Collectors.toSet());
     }
 
-    private void ensureConsumerGroupAndStream() {
+    private void ensureConsumerGroupAndStream(String streamKey) {
+        RedisCommands<String, String> redisCommands = commandsFor(streamKey);
         try {
             // Check if stream exists
-            boolean streamExists = redisCommands.exists(configuration.getStreamKeyName()) == 1;
+            boolean streamExists = redisCommands.exists(streamKey) == 1;
             
             if (!streamExists) {
                 if (configuration.isAutoCreateStreams()) {
                     // Create the stream by adding a dummy message and removing it
-                    Log.infof("Stream '%s' does not exist, creating it...", configuration.getStreamKeyName());
+                    Log.infof("Stream '%s' does not exist, creating it...", streamKey);
                     
                     // Add a minimal dummy message to create the stream
-                    String messageId = redisCommands.xadd(configuration.getStreamKeyName(), 
+                    String messageId = redisCommands.xadd(streamKey, 
                         Map.of("_dummy", "true"));
                     
                     // Immediately remove the dummy message to leave stream empty
-                    redisCommands.xdel(configuration.getStreamKeyName(), messageId);
+                    redisCommands.xdel(streamKey, messageId);
                     
-                    Log.infof("Successfully created empty stream: %s", configuration.getStreamKeyName());
+                    Log.infof("Successfully created empty stream: %s", streamKey);
                 } else {
-                    throw new RedisStreamException("Stream key '" + configuration.getStreamKeyName() + 
+                    throw new RedisStreamException("Stream key '" + streamKey + 
                         "' does not exist and auto-create is disabled");
                 }
             }
@@ -177,10 +853,10 @@ public class RedisStreamConsumer extends ScheduledPollConsumer {
             if (configuration.isAutoCreateGroups()) {
                 try {
                     redisCommands.xgroupCreate(
-                        XReadArgs.StreamOffset.from(configuration.getStreamKeyName(), "0-0"), 
+                        XReadArgs.StreamOffset.from(streamKey, "0-0"), 
                         configuration.getGroup()
                     );
-                    Log.infof("Created consumer group: %s", configuration.getGroup());
+                    Log.infof("Created consumer group %s on stream %s", configuration.getGroup(), streamKey);
                 } catch (Exception e) {
                     Log.debugf("Consumer group already exists: %s", configuration.getGroup());
                 }
@@ -192,19 +868,21 @@ public class RedisStreamConsumer extends ScheduledPollConsumer {
         }
     }
 
-    private EventData mapToEventData(StreamMessage<String, String> message) throws JsonProcessingException {
-        Map<String, String> fields = message.getBody();
+    private EventData mapToEventData(StreamMessage<String, Object> message) throws JsonProcessingException {
+        Map<String, Object> fields = message.getBody();
+        String mimeType = fieldValue(fields, "mimeType");
 
         EventData.Builder builder = EventData.builder()
                 .keyId(message.getId())
-                .aggregateId(fields.get("aggregateId"))
-                .event(fields.get("event"))
-                .payload(fields.get("payload"))
-                .serviceName(fields.get("serviceName"))
-                .mimeType(fields.get("mimeType"));
+                .aggregateId(fieldValue(fields, "aggregateId"))
+                .event(fieldValue(fields, "event"))
+                .payload(payloadDecoder.decode(fields.get("payload"), mimeType, 
+                        fieldValue(fields, PayloadCompression.ENCODING_FIELD)))
+                .serviceName(fieldValue(fields, "serviceName"))
+                .mimeType(mimeType);
         
         // Parse timestamp
-        String timestampStr = fields.get("timestamp");
+        String timestampStr = fieldValue(fields, "timestamp");
         if (timestampStr != null) {
             try {
                 // Try parsing as ISO instant first, then as epoch millis
@@ -220,24 +898,23 @@ public class RedisStreamConsumer extends ScheduledPollConsumer {
         }
 
         // Add headers
-        String headersJson = fields.get("headers");
-        if (headersJson != null && !headersJson.isEmpty()) {
-            try {
-                Map<String, Object> headers = objectMapper.readValue(headersJson, Map.class);
-                if (headers != null) {
-                    builder.headers(headers);
-                }
-            } catch (Exception e) {
-                Log.warnf("Failed to parse headers JSON: %s", headersJson);
-            }
+        Map<String, Object> headers = parseHeaders(fields.get("headers"));
+        if (headers != null) {
+            builder.headers(headers);
         }
         
         // Check for non-standard fields and warn
-        List<String> nonStandardFields = fields.keySet().stream()
-                .filter(key -> !isStandardField(key))
-                .collect(Collectors.toList());
+        List<String> nonStandardFields = null;
+        for (String key : fields.keySet()) {
+            if (!isStandardField(key)) {
+                if (nonStandardFields == null) {
+                    nonStandardFields = new ArrayList<>();
+                }
+                nonStandardFields.add(key);
+            }
+        }
         
-        if (!nonStandardFields.isEmpty()) {
+        if (nonStandardFields != null) {
             Log.warnf("Found non-standard fields in Redis Stream message: %s. These fields will be ignored.", 
                      nonStandardFields);
         }
@@ -245,6 +922,68 @@ public class RedisStreamConsumer extends ScheduledPollConsumer {
         return builder.build();
     }
 
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> parseHeaders(Object headersJson) {
+        try {
+            if (headersJson instanceof byte[]) {
+                byte[] bytes = (byte[]) headersJson;
+                return bytes.length == 0 ? null : objectMapper.readValue(bytes, Map.class);
+            }
+            String json = (String) headersJson;
+            if (json == null || json.isEmpty()) {
+                return null;
+            }
+            return objectMapper.readValue(json, Map.class);
+        } catch (Exception e) {
+            Log.warnf("Failed to parse headers JSON: %s", headersJson instanceof byte[] 
+                    ? new String((byte[]) headersJson, StandardCharsets.UTF_8) : headersJson);
+            return null;
+        }
+    }
+
+    /**
+     * Reads a text field, which is a String with the default codec and UTF-8 bytes with the binary codec.
+     */
+    private static String fieldValue(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value instanceof byte[]) {
+            return new String((byte[]) value, StandardCharsets.UTF_8);
+        }
+        return (String) value;
+    }
+
+    private RedisCommands<String, String> commandsFor(String key) {
+        return endpoint.getConnection(key).sync();
+    }
+
+    /**
+     * Shared connection for stream entries on the key. Entries are always read with the binary codec,
+     * so raw payloads written by binary producers survive whatever the consumer's own setting. Text
+     * fields are decoded as UTF-8, routes get the same strings the String codec delivered.
+     */
+    private StatefulRedisConnection<String, Object> streamConnectionFor(String key) {
+        return objectValued(endpoint.getBinaryConnection(key));
+    }
+
+    private StatefulRedisConnection<String, Object> openReadConnection(String key) {
+        StatefulRedisConnection<String, Object> connection = objectValued(endpoint.getComponent().createDedicatedBinaryConnection(key));
+        dedicatedConnections.add(connection);
+        return connection;
+    }
+
+    private Object encodeValue(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Stream entries are handled with Object values so that the String and the binary codec share
+     * one code path, the field values are either String or byte[] depending on the connection.
+     */
+    @SuppressWarnings("unchecked")
+    private static StatefulRedisConnection<String, Object> objectValued(StatefulRedisConnection<String, ?> connection) {
+        return (StatefulRedisConnection<String, Object>) connection;
+    }
+
     private boolean isStandardField(String fieldName) {
         return "aggregateId".equals(fieldName) || 
                "event".equals(fieldName) || 
@@ -252,27 +991,72 @@ public class RedisStreamConsumer extends ScheduledPollConsumer {
                "serviceName".equals(fieldName) || 
                "timestamp".equals(fieldName) ||
                "mimeType".equals(fieldName) ||
-               "headers".equals(fieldName);
+               "headers".equals(fieldName) ||
+               PayloadCompression.ENCODING_FIELD.equals(fieldName) ||
+               fieldName.startsWith(DeadLetterPublisher.FIELD_PREFIX);
+    }
+
+    /**
+     * Number of duplicate deliveries dropped by the idempotency check.
+     */
+    public long getDuplicateCount() {
+        return duplicateCount.get();
     }
 
     public void acknowledgeMessage(String messageId) {
+        acknowledgeMessage(configuration.getStreamKeyName(), messageId);
+    }
+
+    public void acknowledgeMessage(String streamKey, String messageId) {
         try {
-            redisCommands.xack(configuration.getStreamKeyName(), configuration.getGroup(), messageId);
+            commandsFor(streamKey).xack(streamKey, configuration.getGroup(), messageId);
             Log.debugf("Acknowledged message: %s", messageId);
         } catch (Exception e) {
             Log.error("Failed to acknowledge message: " + messageId, e);
         }
     }
 
-    private void handleProcessingError(StreamMessage<String, String> message, Exception error) {
-        // TODO: Implement dead letter queue or retry logic
+    private void handleProcessingError(StreamMessage<String, Object> message, Throwable error) {
         Log.errorf(error, "Failed to process message: %s - %s", message.getId(), error.getMessage());
+        
+        // Messages read with '>' are on their first delivery, reclaimed ones carry the count from XPENDING
+        Long deliveryCount = deliveryCounts.remove(deliveryKey(message));
+        long deliveries = deliveryCount != null ? deliveryCount : 1L;
+        if (deadLetterPublisher != null && deliveries >= configuration.getMaxDeliveries()) {
+            deadLetterPublisher.publish(List.of(message), Map.of(message.getId(), deliveries), error);
+        }
+        // Otherwise the message stays pending and is retried by the reclaimer
+    }
+
+    /**
+     * Streams read with one XREADGROUP, on a dedicated connection or, without one, on the shared
+     * connection to the node serving them.
+     */
+    private final class ReadGroup {
+
+        private final XReadArgs.StreamOffset<String>[] offsets;
+        private final StatefulRedisConnection<String, Object> connection;
+
+        ReadGroup(XReadArgs.StreamOffset<String>[] offsets, StatefulRedisConnection<String, Object> connection) {
+            this.offsets = offsets;
+            this.connection = connection;
+        }
+
+        RedisCommands<String, Object> commands() {
+            // The shared connection is looked up per read, so it follows the slot to a new master
+            return connection != null ? connection.sync() : streamConnectionFor(offsets[0].getName()).sync();
+        }
     }
 
     @Override
     protected void doStop() throws Exception {
         Log.infof("Stopping Redis Stream consumer: group=%s, consumer=%s", 
                 configuration.getGroup(), consumerName);
+        stopReadLoop();
+        stopReclaimer();
+        unregisterFromLagSampler();
         super.doStop();
+        stopDispatcher();
+        stopAckBatcher();
     }
 }
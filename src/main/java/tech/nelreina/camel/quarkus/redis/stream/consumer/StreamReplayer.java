@@ -0,0 +1,255 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.lettuce.core.Limit;
+import io.lettuce.core.Range;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.quarkus.logging.Log;
+
+/**
+ * Replays the history of streams with XRANGE, outside of any consumer group. The ID range of each
+ * stream is split by timestamp into {@code segments} sub-ranges that are paged in parallel, while the
+ * pages are handed to the handler strictly in stream order. Fetching runs ahead by a bounded number
+ * of pages per segment, so memory stays flat however long the history is.
+ */
+class StreamReplayer implements Runnable {
+
+    private static final int PREFETCH_PAGES = 4;
+    private static final long PROGRESS_LOG_INTERVAL_MILLIS = 10000L;
+
+    private final Function<String, RedisCommands<String, Object>> commandsForKey;
+    private final List<String> streamKeys;
+    private final String fromId;
+    private final String toId;
+    private final int segments;
+    private final int pageSize;
+    private final ExecutorService fetchExecutor;
+    private final Consumer<List<StreamMessage<String, Object>>> handler;
+    private final AtomicLong replayedCount = new AtomicLong();
+    private volatile boolean running = true;
+    private volatile boolean complete;
+    private volatile double progress;
+
+    /**
+     * @param commandsForKey commands on the node serving a stream key
+     */
+    StreamReplayer(Function<String, RedisCommands<String, Object>> commandsForKey, List<String> streamKeys, 
+                   String from, String to, int segments, int pageSize, ExecutorService fetchExecutor,
+                   Consumer<List<StreamMessage<String, Object>>> handler) {
+        this.commandsForKey = commandsForKey;
+        this.streamKeys = streamKeys;
+        this.fromId = toStreamId(from, "-");
+        this.toId = toStreamId(to, "+");
+        this.segments = Math.max(1, segments);
+        this.pageSize = Math.max(1, pageSize);
+        this.fetchExecutor = fetchExecutor;
+        this.handler = handler;
+    }
+
+    @Override
+    public void run() {
+        long startedAt = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < streamKeys.size() && running; i++) {
+                replay(streamKeys.get(i), i);
+            }
+            if (running) {
+                progress = 1.0;
+                complete = true;
+                Log.infof("Replay of %s finished: %d messages in %d ms", streamKeys, replayedCount.get(),
+                        System.currentTimeMillis() - startedAt);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            Log.errorf(e, "Replay of %s failed after %d messages", streamKeys, replayedCount.get());
+        }
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    long getReplayedCount() {
+        return replayedCount.get();
+    }
+
+    /**
+     * Fraction of the ID range already delivered, estimated from entry timestamps.
+     */
+    double getProgress() {
+        return progress;
+    }
+
+    boolean isComplete() {
+        return complete;
+    }
+
+    private void replay(String streamKey, int streamIndex) throws InterruptedException {
+        String first = boundaryId(streamKey, fromId, true);
+        String last = boundaryId(streamKey, toId, false);
+        if (first == null || last == null) {
+            Log.infof("Nothing to replay on stream %s", streamKey);
+            return;
+        }
+        long firstMillis = millisOf(first);
+        long lastMillis = millisOf(last);
+        if (firstMillis > lastMillis) {
+            return;
+        }
+
+        List<Segment> parts = split(streamKey, first, last, firstMillis, lastMillis);
+        for (Segment segment : parts) {
+            fetchExecutor.execute(segment);
+        }
+
+        // Segments are fetched in parallel but drained in order
+        long lastLog = System.currentTimeMillis();
+        try {
+            for (Segment segment : parts) {
+                while (running) {
+                    List<StreamMessage<String, Object>> page = segment.pages.poll(100, TimeUnit.MILLISECONDS);
+                    if (page == null) {
+                        continue;
+                    }
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    handler.accept(page);
+                    replayedCount.addAndGet(page.size());
+
+                    long position = millisOf(page.get(page.size() - 1).getId()) - firstMillis;
+                    double streamProgress = lastMillis > firstMillis ? (double) position / (lastMillis - firstMillis) : 1.0;
+                    progress = (streamIndex + Math.min(1.0, streamProgress)) / streamKeys.size();
+                    if (System.currentTimeMillis() - lastLog >= PROGRESS_LOG_INTERVAL_MILLIS) {
+                        lastLog = System.currentTimeMillis();
+                        Log.infof("Replay of %s at %.1f%% (%d messages)", streamKeys, progress * 100, replayedCount.get());
+                    }
+                }
+                if (segment.error != null) {
+                    throw new IllegalStateException("Failed to read stream " + streamKey, segment.error);
+                }
+            }
+        } finally {
+            for (Segment segment : parts) {
+                segment.cancelled = true;
+            }
+        }
+    }
+
+    List<Segment> split(String streamKey, String first, String last, long firstMillis, long lastMillis) {
+        int count = (int) Math.max(1, Math.min(segments, lastMillis - firstMillis + 1));
+        long width = (lastMillis - firstMillis + 1) / count;
+        List<Segment> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long segmentStart = firstMillis + i * width;
+            // Without a sequence Redis takes the lowest ID of a start and the highest of an end timestamp
+            String start = i == 0 ? first : String.valueOf(segmentStart);
+            String end = i == count - 1 ? last : String.valueOf(segmentStart + width - 1);
+            parts.add(new Segment(streamKey, start, end));
+        }
+        return parts;
+    }
+
+    private String boundaryId(String streamKey, String id, boolean start) {
+        if (!"-".equals(id) && !"+".equals(id)) {
+            return id;
+        }
+        RedisCommands<String, Object> commands = commandsForKey.apply(streamKey);
+        List<StreamMessage<String, Object>> edge = start
+                ? commands.xrange(streamKey, Range.unbounded(), Limit.from(1))
+                : commands.xrevrange(streamKey, Range.unbounded(), Limit.from(1));
+        return edge.isEmpty() ? null : edge.get(0).getId();
+    }
+
+    /**
+     * Accepts stream IDs, epoch milliseconds and ISO-8601 instants.
+     */
+    static String toStreamId(String value, String defaultId) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultId;
+        }
+        String trimmed = value.trim();
+        if (trimmed.contains("T")) {
+            return String.valueOf(Instant.parse(trimmed).toEpochMilli());
+        }
+        return trimmed;
+    }
+
+    private static long millisOf(String id) {
+        int separator = id.indexOf('-');
+        return Long.parseLong(separator > 0 ? id.substring(0, separator) : id);
+    }
+
+    final class Segment implements Runnable {
+
+        private final String streamKey;
+        private final String start;
+        private final String end;
+        private final BlockingQueue<List<StreamMessage<String, Object>>> pages = new ArrayBlockingQueue<>(PREFETCH_PAGES + 1);
+        private volatile boolean cancelled;
+        private volatile Exception error;
+
+        Segment(String streamKey, String start, String end) {
+            this.streamKey = streamKey;
+            this.start = start;
+            this.end = end;
+        }
+
+        String getStart() {
+            return start;
+        }
+
+        String getEnd() {
+            return end;
+        }
+
+        @Override
+        public void run() {
+            try {
+                RedisCommands<String, Object> commands = commandsForKey.apply(streamKey);
+                Range<String> range = Range.create(start, end);
+                while (running && !cancelled) {
+                    List<StreamMessage<String, Object>> page = commands.xrange(streamKey, range, Limit.from(pageSize));
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    offer(page);
+                    if (page.size() < pageSize) {
+                        break;
+                    }
+                    range = Range.from(Range.Boundary.excluding(page.get(page.size() - 1).getId()), Range.Boundary.including(end));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                error = e;
+            }
+            try {
+                // End of segment marker
+                offer(Collections.emptyList());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void offer(List<StreamMessage<String, Object>> page) throws InterruptedException {
+            while (running && !cancelled && !pages.offer(page, 100, TimeUnit.MILLISECONDS)) {
+                // Wait for the replay to catch up with this segment
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.camel.builder.ThreadPoolProfileBuilder;
+import org.apache.camel.spi.ExecutorServiceManager;
+import org.apache.camel.spi.ThreadPoolProfile;
+import org.apache.camel.util.concurrent.ThreadPoolRejectedPolicy;
+
+/**
+ * Runs tasks on a fixed set of single-threaded stripes. Tasks sharing a key always land on the
+ * same stripe, so they run in submission order while different keys run in parallel.
+ * The number of queued and running tasks is bounded; {@link #dispatch} blocks when the bound is reached.
+ * The stripe queues themselves are unbounded: a rejected task would run on the caller thread, ahead
+ * of the tasks already queued for its key, and break their order.
+ * When a thread factory is supplied (e.g. for virtual threads) the stripes are created from it
+ * instead of the Camel executor service manager.
+ */
+class StripedDispatcher {
+
+    private final ExecutorServiceManager executorServiceManager;
+    private final ExecutorService[] stripes;
+    private final Semaphore inFlight;
+
+    StripedDispatcher(ExecutorServiceManager executorServiceManager, Object source, String name, 
+                      int stripeCount, int maxInFlight, ThreadFactory threadFactory) {
+        this.executorServiceManager = executorServiceManager;
+        this.stripes = new ExecutorService[stripeCount];
+        ThreadPoolProfile profile = new ThreadPoolProfileBuilder(name)
+                .poolSize(1)
+                .maxPoolSize(1)
+                .maxQueueSize(Integer.MAX_VALUE)
+                .rejectedPolicy(ThreadPoolRejectedPolicy.Abort)
+                .build();
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = threadFactory != null 
+                    ? Executors.newSingleThreadExecutor(threadFactory)
+                    : executorServiceManager.newThreadPool(source, name + "-" + i, profile);
+        }
+        this.inFlight = new Semaphore(Math.max(stripeCount, maxInFlight));
+    }
+
+    void dispatch(String key, Runnable task) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            stripes[stripeFor(key)].execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private int stripeFor(String key) {
+        int hash = key.hashCode();
+        // Spread the high bits so keys with similar prefixes don't cluster on a few stripes
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+
+    void shutdown(long awaitMillis) {
+        for (ExecutorService stripe : stripes) {
+            executorServiceManager.shutdownGraceful(stripe, awaitMillis);
+        }
+    }
+}
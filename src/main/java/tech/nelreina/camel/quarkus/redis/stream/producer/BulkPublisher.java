@@ -0,0 +1,107 @@
+package tech.nelreina.camel.quarkus.redis.stream.producer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import tech.nelreina.camel.quarkus.redis.stream.component.RedisConnectionManager;
+
+/**
+ * Publishes a batch of messages as one pipeline on a connection borrowed from the component's
+ * pool, optionally wrapped in MULTI/EXEC. The connection is used exclusively until all replies
+ * have arrived, so no other command can end up inside the transaction.
+ * <p>
+ * On a Redis Cluster every node serving one of the stream keys gets its own pipeline. A
+ * transaction cannot span slots there, so transactional batches must keep to one slot.
+ */
+final class BulkPublisher {
+
+    private BulkPublisher() {
+    }
+
+    /**
+     * Adds each body to the stream key at the same index and returns the generated IDs in order.
+     */
+    static CompletableFuture<List<String>> publish(RedisConnectionManager connectionManager, boolean binary,
+                                                   List<String> streamKeys, List<? extends Map<String, ?>> bodies,
+                                                   boolean transactional) {
+        if (transactional && streamKeys.stream().mapToInt(connectionManager::slotFor).distinct().count() > 1) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "A transactional bulk publish on a Redis Cluster needs all stream keys in one hash slot"));
+        }
+        Map<String, List<Integer>> indexesByNode = new LinkedHashMap<>();
+        for (int i = 0; i < streamKeys.size(); i++) {
+            indexesByNode.computeIfAbsent(connectionManager.nodeFor(streamKeys.get(i)), node -> new ArrayList<>()).add(i);
+        }
+        
+        String[] ids = new String[bodies.size()];
+        List<CompletableFuture<?>> nodeReplies = new ArrayList<>(indexesByNode.size());
+        for (List<Integer> indexes : indexesByNode.values()) {
+            List<String> nodeKeys = new ArrayList<>(indexes.size());
+            List<Map<String, ?>> nodeBodies = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                nodeKeys.add(streamKeys.get(index));
+                nodeBodies.add(bodies.get(index));
+            }
+            nodeReplies.add(publishOnNode(connectionManager, binary, nodeKeys, nodeBodies, transactional).thenAccept(nodeIds -> {
+                for (int i = 0; i < nodeIds.size(); i++) {
+                    ids[indexes.get(i)] = nodeIds.get(i);
+                }
+            }));
+        }
+        return CompletableFuture.allOf(nodeReplies.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> Arrays.asList(ids));
+    }
+
+    private static CompletableFuture<List<String>> publishOnNode(RedisConnectionManager connectionManager, boolean binary,
+                                                                 List<String> streamKeys, List<? extends Map<String, ?>> bodies,
+                                                                 boolean transactional) {
+        return connectionManager.acquirePooled(binary, streamKeys.get(0)).thenCompose(connection -> {
+            CompletableFuture<List<String>> messageIds;
+            try {
+                messageIds = publish(connection, streamKeys, bodies, transactional);
+            } catch (RuntimeException e) {
+                messageIds = CompletableFuture.failedFuture(e);
+            }
+            return messageIds.whenComplete((ids, error) -> connectionManager.releasePooled(connection));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<List<String>> publish(StatefulRedisConnection<String, Object> connection, List<String> streamKeys,
+                                                           List<? extends Map<String, ?>> bodies, boolean transactional) {
+        RedisAsyncCommands<String, Object> commands = connection.async();
+        List<CompletableFuture<?>> replies = new ArrayList<>(bodies.size() + 2);
+        List<CompletableFuture<String>> messageIds = new ArrayList<>(bodies.size());
+
+        // Queue everything and write it to the socket at once
+        connection.setAutoFlushCommands(false);
+        try {
+            if (transactional) {
+                replies.add(commands.multi().toCompletableFuture());
+            }
+            for (int i = 0; i < bodies.size(); i++) {
+                CompletableFuture<String> messageId = commands.xadd(streamKeys.get(i), (Map<String, Object>) bodies.get(i))
+                        .toCompletableFuture();
+                messageIds.add(messageId);
+                replies.add(messageId);
+            }
+            if (transactional) {
+                replies.add(commands.exec().toCompletableFuture());
+            }
+            connection.flushCommands();
+        } finally {
+            connection.setAutoFlushCommands(true);
+        }
+
+        return CompletableFuture.allOf(replies.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<String> ids = new ArrayList<>(messageIds.size());
+            messageIds.forEach(messageId -> ids.add(messageId.join()));
+            return ids;
+        });
+    }
+}
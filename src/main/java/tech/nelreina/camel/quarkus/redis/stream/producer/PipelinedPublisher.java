@@ -0,0 +1,99 @@
+package tech.nelreina.camel.quarkus.redis.stream.producer;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.quarkus.logging.Log;
+
+/**
+ * Queues XADD commands on a dedicated connection with auto-flush disabled and writes them to
+ * Redis as one pipeline once {@code batchSize} commands are queued or {@code lingerMillis} has
+ * passed since the first one, similar to Kafka's {@code batch.size} and {@code linger.ms}.
+ * Every publish completes individually when its own message ID comes back.
+ * The connection is owned and released by the producer, after {@link #close(long)} has waited
+ * for the replies still outstanding.
+ */
+class PipelinedPublisher {
+
+    private final StatefulRedisConnection<String, Object> connection;
+    private final RedisAsyncCommands<String, Object> commands;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final ScheduledExecutorService lingerExecutor;
+    private final ProducerMetrics metrics;
+    private final Set<CompletableFuture<String>> outstanding = ConcurrentHashMap.newKeySet();
+    private int queued;
+    private ScheduledFuture<?> lingerFlush;
+
+    PipelinedPublisher(StatefulRedisConnection<String, Object> connection, int batchSize, long lingerMillis,
+                       ScheduledExecutorService lingerExecutor, ProducerMetrics metrics) {
+        this.connection = connection;
+        this.commands = connection.async();
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerMillis = lingerMillis;
+        this.lingerExecutor = lingerExecutor;
+        this.metrics = metrics;
+        connection.setAutoFlushCommands(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized CompletableFuture<String> publish(String streamKey, Map<String, ?> body) {
+        CompletableFuture<String> messageId = commands.xadd(streamKey, (Map<String, Object>) body).toCompletableFuture();
+        outstanding.add(messageId);
+        messageId.whenComplete((id, error) -> outstanding.remove(messageId));
+        queued++;
+        if (queued >= batchSize || lingerMillis <= 0) {
+            flush();
+        } else if (lingerFlush == null) {
+            lingerFlush = lingerExecutor.schedule(this::flush, lingerMillis, TimeUnit.MILLISECONDS);
+        }
+        return messageId;
+    }
+
+    synchronized void flush() {
+        if (lingerFlush != null) {
+            lingerFlush.cancel(false);
+            lingerFlush = null;
+        }
+        if (queued > 0) {
+            Log.tracef("Flushing %d pipelined XADD commands", queued);
+            connection.flushCommands();
+            metrics.recordBatch(queued);
+            queued = 0;
+        }
+    }
+
+    /**
+     * Writes what is still queued and waits up to the timeout for the outstanding replies, so
+     * closing the connection afterwards does not cancel XADDs already sent.
+     */
+    void close(long timeoutMillis) {
+        flush();
+        CompletableFuture<?>[] pending = outstanding.toArray(new CompletableFuture<?>[0]);
+        if (pending.length == 0) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(pending).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Failures are reported to the exchanges that published them
+        } catch (TimeoutException e) {
+            Log.warnf("%d pipelined XADD commands still outstanding after %d ms", outstanding.size(), timeoutMillis);
+        }
+    }
+
+    StatefulRedisConnection<String, Object> getConnection() {
+        return connection;
+    }
+}
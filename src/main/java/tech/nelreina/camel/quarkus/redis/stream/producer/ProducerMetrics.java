@@ -0,0 +1,57 @@
+package tech.nelreina.camel.quarkus.redis.stream.producer;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Producer meters tagged by stream, registered once when the producer starts.
+ */
+final class ProducerMetrics {
+
+    private final Timer xadd;
+    private final Timer bulk;
+    private final DistributionSummary batch;
+    private final Counter failed;
+
+    ProducerMetrics(MeterRegistry registry, String stream) {
+        Tags tags = Tags.of("stream", stream);
+        this.xadd = Timer.builder("redis.stream.producer.xadd")
+                .description("Time until Redis returned the ID of a published message")
+                .tags(tags)
+                .register(registry);
+        this.bulk = Timer.builder("redis.stream.producer.bulk")
+                .description("Time until every message of a bulk publish was added")
+                .tags(tags)
+                .register(registry);
+        this.batch = DistributionSummary.builder("redis.stream.producer.batch")
+                .description("XADD commands written per pipeline flush or bulk publish")
+                .tags(tags)
+                .register(registry);
+        this.failed = Counter.builder("redis.stream.producer.failed")
+                .description("Messages that could not be published")
+                .tags(tags)
+                .register(registry);
+    }
+
+    void recordXadd(long startNanos) {
+        xadd.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordBulk(long startNanos, int messages) {
+        bulk.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        batch.record(messages);
+    }
+
+    void recordBatch(int messages) {
+        batch.record(messages);
+    }
+
+    void recordFailed(int messages) {
+        failed.increment(messages);
+    }
+}
@@ -1,28 +1,59 @@
 package tech.nelreina.camel.quarkus.redis.stream.producer;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
-import org.apache.camel.support.DefaultProducer;
+import org.apache.camel.Message;
+import org.apache.camel.builder.ThreadPoolProfileBuilder;
+import org.apache.camel.support.DefaultAsyncProducer;
+import org.apache.camel.util.concurrent.ThreadPoolRejectedPolicy;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.api.sync.RedisCommands;
 import io.quarkus.logging.Log;
 import tech.nelreina.camel.quarkus.redis.stream.component.RedisStreamConfiguration;
 import tech.nelreina.camel.quarkus.redis.stream.component.RedisStreamEndpoint;
 import tech.nelreina.camel.quarkus.redis.stream.exception.RedisStreamException;
 import tech.nelreina.camel.quarkus.redis.stream.model.EventData;
+import tech.nelreina.camel.quarkus.redis.stream.util.PayloadCompression;
+import tech.nelreina.camel.quarkus.redis.stream.util.StreamPartitions;
 
-public class RedisStreamProducer extends DefaultProducer {
+public class RedisStreamProducer extends DefaultAsyncProducer {
+
+    public static final String MESSAGE_ID_HEADER = "RedisStreamId";
+    public static final String MESSAGE_IDS_HEADER = "RedisStreamIds";
+
+    private static final int COMPLETION_POOL_SIZE = 10;
+    private static final long COMPLETION_SHUTDOWN_MILLIS = 30000L;
 
     private final RedisStreamEndpoint endpoint;
     private final RedisStreamConfiguration configuration;
-    private RedisCommands<String, String> redisCommands;
+    private boolean binary;
+    private Map<String, PipelinedPublisher> pipelinedPublishers;
+    private ScheduledExecutorService lingerExecutor;
+    private ExecutorService completionExecutor;
+    private List<String> streamKeys;
+    private final AtomicInteger nextPartition = new AtomicInteger();
+    private ProducerMetrics metrics;
     private final ObjectMapper objectMapper;
 
     public RedisStreamProducer(RedisStreamEndpoint endpoint) {
@@ -41,34 +72,200 @@ public class RedisStreamProducer extends DefaultProducer {
             throw new RedisStreamException("Redis connection is not available");
         }
         
-        this.redisCommands = connection.sync();
+        this.binary = configuration.isBinaryPayloads();
+        this.metrics = new ProducerMetrics(endpoint.getComponent().getMeterRegistry(), configuration.getStreamKeyName());
+        // Replies complete on the Netty event loop shared by every connection of the component,
+        // the rest of the route must not run there. The queue is unbounded so a hand-off is never
+        // rejected back onto the event loop, only once the producer is stopping
+        String name = "RedisStreamProducer[" + configuration.getStreamKeyName() + "]";
+        this.completionExecutor = endpoint.getCamelContext().getExecutorServiceManager().newThreadPool(this, name,
+                new ThreadPoolProfileBuilder(name)
+                        .poolSize(COMPLETION_POOL_SIZE)
+                        .maxPoolSize(COMPLETION_POOL_SIZE)
+                        .maxQueueSize(Integer.MAX_VALUE)
+                        .allowCoreThreadTimeOut(true)
+                        .rejectedPolicy(ThreadPoolRejectedPolicy.Abort)
+                        .build());
+        this.streamKeys = StreamPartitions.streamKeys(configuration.getStreamKeyName(), configuration.getPartitions());
+        if (configuration.getProducerBatchSize() > 0) {
+            startPipelinedPublishers();
+        }
         
         Log.infof("Started Redis Stream producer for stream: %s", configuration.getStreamKeyName());
     }
 
     @Override
-    public void process(Exchange exchange) throws Exception {
-        Object body = exchange.getIn().getBody();
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        if (isBulk(exchange.getIn().getBody())) {
+            return processBulk(exchange, callback);
+        }
         
-        if (body instanceof EventData) {
-            // Direct EventData object
-            EventData eventData = (EventData) body;
-            publishEventData(eventData);
-        } else {
-            // Create EventData from message body and headers
-            EventData eventData = createEventDataFromExchange(exchange);
-            publishEventData(eventData);
+        CompletableFuture<String> messageId;
+        try {
+            Object body = exchange.getIn().getBody();
+            
+            if (body instanceof EventData) {
+                // Direct EventData object
+                messageId = publishEventData((EventData) body);
+            } else {
+                // Create EventData from message body and headers
+                messageId = publishEventData(createEventDataFromExchange(exchange));
+            }
+        } catch (Exception e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
         }
         
-        // Set the message ID as a header for the response
-        exchange.getOut().setHeaders(exchange.getIn().getHeaders());
-        exchange.getOut().setBody(exchange.getIn().getBody());
+        // The route thread is released, the exchange continues when Redis replies
+        messageId.whenComplete((id, error) -> continueExchange(new Completion(exchange, callback) {
+            @Override
+            void apply() {
+                if (error != null) {
+                    exchange.setException(new RedisStreamException("Failed to publish message to Redis Stream", unwrap(error)));
+                } else {
+                    // Set the message ID as a header for the response
+                    exchange.getMessage().setHeader(MESSAGE_ID_HEADER, id);
+                }
+            }
+        }));
+        return false;
     }
 
-    private EventData createEventDataFromExchange(Exchange exchange) {
-        Map<String, Object> headers = exchange.getIn().getHeaders();
-        Object body = exchange.getIn().getBody();
+    /**
+     * Collections of {@link EventData} or {@link Message} can only mean one message per element.
+     * Other collections keep being published as a single event with an array payload unless
+     * {@code bulkPublish} is enabled.
+     */
+    private boolean isBulk(Object body) {
+        if (!(body instanceof Collection) || ((Collection<?>) body).isEmpty()) {
+            return false;
+        }
+        if (configuration.isBulkPublish()) {
+            return true;
+        }
+        for (Object item : (Collection<?>) body) {
+            if (!(item instanceof EventData) && !(item instanceof Message)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Publishes every element of a collection body in one pipeline, optionally as a MULTI/EXEC
+     * transaction. Elements can be {@link EventData}, Camel {@link Message}s carrying their own
+     * headers, or plain bodies that take the exchange headers.
+     */
+    private boolean processBulk(Exchange exchange, AsyncCallback callback) {
+        CompletableFuture<List<String>> messageIds;
+        long startNanos = System.nanoTime();
+        int messageCount;
+        try {
+            Collection<?> items = exchange.getIn().getBody(Collection.class);
+            List<String> keys = new ArrayList<>(items.size());
+            List<Map<String, ?>> streamMessages = new ArrayList<>(items.size());
+            for (Object item : items) {
+                EventData eventData;
+                if (item instanceof EventData) {
+                    eventData = (EventData) item;
+                } else if (item instanceof Message) {
+                    eventData = createEventData(((Message) item).getBody(), ((Message) item).getHeaders());
+                } else {
+                    eventData = createEventData(item, exchange.getIn().getHeaders());
+                }
+                keys.add(streamKeyFor(eventData));
+                streamMessages.add(binary 
+                        ? convertEventDataToBinaryStreamMessage(eventData) : convertEventDataToStreamMessage(eventData));
+            }
+            
+            messageCount = streamMessages.size();
+            messageIds = BulkPublisher.publish(endpoint.getComponent().getConnectionManager(), binary, 
+                    keys, streamMessages, configuration.isBulkTransaction());
+        } catch (Exception e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
         
+        messageIds.whenComplete((ids, error) -> continueExchange(new Completion(exchange, callback) {
+            @Override
+            void apply() {
+                if (error != null) {
+                    metrics.recordFailed(messageCount);
+                    exchange.setException(new RedisStreamException("Failed to bulk publish messages to Redis Stream", unwrap(error)));
+                } else {
+                    metrics.recordBulk(startNanos, ids.size());
+                    exchange.getMessage().setHeader(MESSAGE_IDS_HEADER, ids);
+                    Log.debugf("Published %d messages to stream '%s'", ids.size(), configuration.getStreamKeyName());
+                }
+            }
+        }));
+        return false;
+    }
+
+    /**
+     * Hands the exchange over to the completion pool. Only a stopping producer rejects it, the
+     * exchange then fails right away instead of waiting for a pool that will never run it.
+     */
+    private void continueExchange(Completion completion) {
+        ExecutorService executor = completionExecutor;
+        try {
+            if (executor == null) {
+                throw new RejectedExecutionException("Producer is stopped");
+            }
+            executor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            completion.fail(e);
+        }
+    }
+
+    /**
+     * Applies a Redis reply to its exchange and continues the route. Failing it instead is safe on
+     * any thread, the route only sees the exception.
+     */
+    private abstract static class Completion implements Runnable {
+
+        private final Exchange exchange;
+        private final AsyncCallback callback;
+
+        Completion(Exchange exchange, AsyncCallback callback) {
+            this.exchange = exchange;
+            this.callback = callback;
+        }
+
+        abstract void apply();
+
+        @Override
+        public void run() {
+            try {
+                apply();
+            } catch (Exception e) {
+                exchange.setException(e);
+            } finally {
+                callback.done(false);
+            }
+        }
+
+        void fail(Exception cause) {
+            try {
+                apply();
+            } catch (Exception e) {
+                Log.debug("Failed to apply Redis reply of a rejected exchange", e);
+            }
+            if (exchange.getException() == null) {
+                // The reply may well be a success, but the route can no longer continue on this producer
+                exchange.setException(new RedisStreamException("Producer stopped before the exchange could continue", cause));
+            }
+            callback.done(false);
+        }
+    }
+
+    private EventData createEventDataFromExchange(Exchange exchange) {
+        return createEventData(exchange.getIn().getBody(), exchange.getIn().getHeaders());
+    }
+
+    private EventData createEventData(Object body, Map<String, Object> headers) {
         EventData.Builder builder = EventData.builder();
         
         // Extract standard fields from headers
@@ -84,7 +281,7 @@ public class RedisStreamProducer extends DefaultProducer {
         String mimeType = "json"; // default
         if (body instanceof String) {
             mimeType = "text";
-        } else if (body instanceof byte[]) {
+        } else if (body instanceof byte[] || body instanceof ByteBuffer) {
             mimeType = "binary";
         }
         
@@ -113,21 +310,103 @@ public class RedisStreamProducer extends DefaultProducer {
                "headers".equals(headerName);
     }
 
-    private void publishEventData(EventData eventData) {
-        try {
-            Map<String, String> streamMessage = convertEventDataToStreamMessage(eventData);
-            
-            String messageId = redisCommands.xadd(configuration.getStreamKeyName(), streamMessage);
-            
-            Log.debugf("Published message to stream '%s' with ID: %s", 
-                     configuration.getStreamKeyName(), messageId);
-            
-        } catch (Exception e) {
-            throw new RedisStreamException("Failed to publish message to Redis Stream", e);
+    /**
+     * Picks the partition key by {@code aggregateId}, so an aggregate's events stay in order.
+     * Events without an aggregate are spread round robin.
+     */
+    private String streamKeyFor(EventData eventData) {
+        if (streamKeys.size() == 1) {
+            return streamKeys.get(0);
+        }
+        int partition = eventData.getAggregateId() != null 
+                ? StreamPartitions.partitionFor(eventData.getAggregateId(), streamKeys.size())
+                : Math.floorMod(nextPartition.getAndIncrement(), streamKeys.size());
+        return streamKeys.get(partition);
+    }
+
+    private CompletableFuture<String> publishEventData(EventData eventData) {
+        String streamKey = streamKeyFor(eventData);
+        CompletableFuture<String> messageId;
+        long startNanos = System.nanoTime();
+        if (pipelinedPublishers != null) {
+            // Queued with other exchanges' XADDs and completed when its own reply arrives
+            Map<String, ?> streamMessage = binary 
+                    ? convertEventDataToBinaryStreamMessage(eventData) : convertEventDataToStreamMessage(eventData);
+            messageId = pipelinedPublisherFor(streamKey).publish(streamKey, streamMessage);
+        } else if (binary) {
+            messageId = endpoint.getBinaryConnection(streamKey).async().xadd(streamKey, 
+                    convertEventDataToBinaryStreamMessage(eventData)).toCompletableFuture();
+        } else {
+            messageId = endpoint.getConnection(streamKey).async().xadd(streamKey, 
+                    convertEventDataToStreamMessage(eventData)).toCompletableFuture();
         }
+        
+        return messageId.whenComplete((id, error) -> {
+            if (error == null) {
+                metrics.recordXadd(startNanos);
+                Log.debugf("Published message to stream '%s' with ID: %s", streamKey, id);
+            } else {
+                metrics.recordFailed(1);
+            }
+        });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Binary codec variant: text fields are UTF-8 encoded and {@code byte[]} or {@link ByteBuffer}
+     * payloads are written as-is instead of being serialized.
+     */
+    private Map<String, byte[]> convertEventDataToBinaryStreamMessage(EventData eventData) {
+        Map<String, byte[]> message = new HashMap<>();
+        convertEventDataToStreamMessage(eventData, false)
+                .forEach((field, value) -> message.put(field, value.getBytes(StandardCharsets.UTF_8)));
+        
+        if (eventData.getPayload() != null) {
+            byte[] payload = toBytes(eventData.getPayload());
+            // Consumers must know the bytes are not text, String codecs would carry them as Base64
+            boolean raw = payload != null;
+            if (payload == null) {
+                payload = serializePayload(eventData.getPayload()).getBytes(StandardCharsets.UTF_8);
+            }
+            byte[] compressed = compressIfLarge(payload);
+            if (compressed != null) {
+                message.put("payload", compressed);
+                message.put(PayloadCompression.ENCODING_FIELD, PayloadCompression.BINARY_DEFLATE.getBytes(StandardCharsets.UTF_8));
+            } else {
+                message.put("payload", payload);
+                if (raw) {
+                    message.put(PayloadCompression.ENCODING_FIELD, PayloadCompression.BINARY.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return message;
+    }
+
+    private byte[] toBytes(Object payload) {
+        if (payload instanceof byte[]) {
+            return (byte[]) payload;
+        }
+        if (payload instanceof ByteBuffer) {
+            ByteBuffer buffer = (ByteBuffer) payload;
+            if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0 
+                    && buffer.remaining() == buffer.array().length) {
+                return buffer.array();
+            }
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return bytes;
+        }
+        return null;
     }
 
     private Map<String, String> convertEventDataToStreamMessage(EventData eventData) {
+        return convertEventDataToStreamMessage(eventData, true);
+    }
+
+    private Map<String, String> convertEventDataToStreamMessage(EventData eventData, boolean includePayload) {
         Map<String, String> message = new HashMap<>();
         
         // Standard fields
@@ -145,9 +424,18 @@ public class RedisStreamProducer extends DefaultProducer {
         }
         
         // Payload - serialize to JSON if it's an object
-        if (eventData.getPayload() != null) {
+        if (includePayload && eventData.getPayload() != null) {
             String payloadStr = serializePayload(eventData.getPayload());
-            message.put("payload", payloadStr);
+            // A UTF-8 char takes at most 3 bytes, shorter strings cannot exceed the threshold
+            byte[] compressed = configuration.getCompressionThreshold() > 0 && payloadStr.length() * 3L > configuration.getCompressionThreshold()
+                    ? compressIfLarge(payloadStr.getBytes(StandardCharsets.UTF_8)) : null;
+            if (compressed != null) {
+                // String values must be valid UTF-8, so compressed bytes are Base64 encoded
+                message.put("payload", Base64.getEncoder().encodeToString(compressed));
+                message.put(PayloadCompression.ENCODING_FIELD, PayloadCompression.DEFLATE);
+            } else {
+                message.put("payload", payloadStr);
+            }
         }
         
         // MimeType - add as standard field (defaults to "json" in EventData)
@@ -174,6 +462,23 @@ public class RedisStreamProducer extends DefaultProducer {
         return message;
     }
 
+    /**
+     * Returns the Deflate-compressed payload when it exceeds {@code compressionThreshold} bytes and
+     * compression pays off, otherwise {@code null}.
+     */
+    private byte[] compressIfLarge(byte[] payload) {
+        int threshold = configuration.getCompressionThreshold();
+        if (threshold <= 0 || payload.length <= threshold) {
+            return null;
+        }
+        byte[] compressed = PayloadCompression.deflate(payload);
+        // Base64 adds a third in string mode, only keep compression when the field still shrinks
+        if (compressed == null || (!binary && compressed.length * 4 / 3 >= payload.length)) {
+            return null;
+        }
+        return compressed;
+    }
+
     private String serializePayload(Object payload) {
         if (payload instanceof String) {
             return (String) payload;
@@ -201,12 +506,63 @@ public class RedisStreamProducer extends DefaultProducer {
                 .timestamp(Instant.now())
                 .build();
         
-        publishEventData(eventData);
+        try {
+            publishEventData(eventData).join();
+        } catch (CompletionException e) {
+            throw new RedisStreamException("Failed to publish message to Redis Stream", unwrap(e));
+        }
+    }
+
+    private void startPipelinedPublishers() {
+        this.lingerExecutor = endpoint.getCamelContext().getExecutorServiceManager()
+                .newSingleThreadScheduledExecutor(this, "RedisStreamPipeline[" + configuration.getStreamKeyName() + "]");
+        this.pipelinedPublishers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * One pipeline per node, a single one unless the partitions are spread over a cluster.
+     */
+    @SuppressWarnings("unchecked")
+    private PipelinedPublisher pipelinedPublisherFor(String streamKey) {
+        String node = endpoint.getComponent().getConnectionManager().nodeFor(streamKey);
+        return pipelinedPublishers.computeIfAbsent(node, ignored -> {
+            // Auto-flush is switched off on the pipeline connection, so it must not be the shared one
+            StatefulRedisConnection<String, ?> connection = binary 
+                    ? endpoint.getComponent().createDedicatedBinaryConnection(streamKey)
+                    : endpoint.getComponent().createDedicatedConnection(streamKey);
+            return new PipelinedPublisher((StatefulRedisConnection<String, Object>) connection, 
+                    configuration.getProducerBatchSize(), configuration.getProducerLinger(), lingerExecutor, metrics);
+        });
     }
 
     @Override
     protected void doStop() throws Exception {
         Log.infof("Stopping Redis Stream producer for stream: %s", configuration.getStreamKeyName());
+        if (pipelinedPublishers != null) {
+            for (PipelinedPublisher pipelinedPublisher : pipelinedPublishers.values()) {
+                pipelinedPublisher.close(30000L);
+                endpoint.getComponent().releaseConnection(pipelinedPublisher.getConnection());
+            }
+            pipelinedPublishers = null;
+        }
+        if (lingerExecutor != null) {
+            endpoint.getCamelContext().getExecutorServiceManager().shutdown(lingerExecutor);
+            lingerExecutor = null;
+        }
+        if (completionExecutor != null) {
+            // Lets exchanges whose replies already arrived continue their route, those still queued
+            // after the timeout fail instead of being dropped without their callback
+            ExecutorService executor = completionExecutor;
+            completionExecutor = null;
+            endpoint.getCamelContext().getExecutorServiceManager().shutdown(executor);
+            if (!executor.awaitTermination(COMPLETION_SHUTDOWN_MILLIS, TimeUnit.MILLISECONDS)) {
+                for (Runnable task : executor.shutdownNow()) {
+                    if (task instanceof Completion) {
+                        ((Completion) task).fail(new RejectedExecutionException("Producer is stopped"));
+                    }
+                }
+            }
+        }
         super.doStop();
     }
 }
\ No newline at end of file
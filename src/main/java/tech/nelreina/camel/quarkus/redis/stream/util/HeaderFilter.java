@@ -1,15 +1,27 @@
 package tech.nelreina.camel.quarkus.redis.stream.util;
 
+import java.io.IOException;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import tech.nelreina.camel.quarkus.redis.stream.model.EventData;
 
 public class HeaderFilter {
     
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    
     private final Map<String, String> filterCriteria;
+    // Position of each criterion in the bitset of matched criteria used by the JSON scan
+    private final Map<String, Integer> criteriaIndexes = new HashMap<>();
     
     public HeaderFilter(String headerFilters) {
         this.filterCriteria = parseHeaderFilters(headerFilters);
+        indexCriteria();
     }
     
     public HeaderFilter(String globalFilters, String routeFilters) {
@@ -19,6 +31,13 @@ public class HeaderFilter {
         // Override/add route-specific filters
         Map<String, String> routeFilterMap = parseHeaderFilters(routeFilters);
         this.filterCriteria.putAll(routeFilterMap);
+        indexCriteria();
+    }
+    
+    private void indexCriteria() {
+        for (String key : filterCriteria.keySet()) {
+            criteriaIndexes.put(key, criteriaIndexes.size());
+        }
     }
     
     private Map<String, String> parseHeaderFilters(String headerFilters) {
@@ -49,11 +68,14 @@ public class HeaderFilter {
     }
     
     public boolean matches(EventData eventData) {
+        return matches(eventData.getHeaders());
+    }
+    
+    public boolean matches(Map<String, Object> headers) {
         if (filterCriteria.isEmpty()) {
             return true;
         }
         
-        Map<String, Object> headers = eventData.getHeaders();
         if (headers == null || headers.isEmpty()) {
             return false;
         }
@@ -68,6 +90,88 @@ public class HeaderFilter {
         return true;
     }
     
+    /**
+     * Matches the filter criteria against the raw {@code headers} JSON of a stream message.
+     * The JSON is scanned with a streaming parser that only inspects the filtered keys, so no
+     * headers map is built. Values are compared the same way as {@link #matches(Map)} compares
+     * deserialized values, and a repeated key counts with its last value like in that map.
+     */
+    public boolean matchesJson(String headersJson) {
+        if (filterCriteria.isEmpty()) {
+            return true;
+        }
+        
+        if (headersJson == null || headersJson.isEmpty()) {
+            return false;
+        }
+        
+        try (JsonParser parser = OBJECT_MAPPER.createParser(headersJson)) {
+            return matches(parser);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Same as {@link #matchesJson(String)} for UTF-8 encoded headers read with a binary codec.
+     */
+    public boolean matchesJson(byte[] headersJson) {
+        if (filterCriteria.isEmpty()) {
+            return true;
+        }
+        
+        if (headersJson == null || headersJson.length == 0) {
+            return false;
+        }
+        
+        try (JsonParser parser = OBJECT_MAPPER.createParser(headersJson)) {
+            return matches(parser);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    private boolean matches(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        
+        // A later occurrence of a key can still change the verdict, so the whole object is scanned
+        BitSet matched = new BitSet(criteriaIndexes.size());
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            Integer index = criteriaIndexes.get(name);
+            JsonToken valueToken = parser.nextToken();
+            if (index == null) {
+                parser.skipChildren();
+                continue;
+            }
+            
+            String actual = valueAsString(parser, valueToken);
+            matched.set(index, actual != null && filterCriteria.get(name).equals(actual));
+        }
+        return matched.cardinality() == criteriaIndexes.size();
+    }
+    
+    private String valueAsString(JsonParser parser, JsonToken valueToken) throws IOException {
+        switch (valueToken) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return String.valueOf(parser.getNumberValue());
+            case VALUE_TRUE:
+                return "true";
+            case VALUE_FALSE:
+                return "false";
+            case VALUE_NULL:
+                return null;
+            default:
+                // Nested objects and arrays are rare in filters, fall back to their deserialized form
+                return String.valueOf(parser.readValueAs(Object.class));
+        }
+    }
+    
     public Map<String, String> getFilterCriteria() {
         return new HashMap<>(filterCriteria);
     }
@@ -0,0 +1,91 @@
+package tech.nelreina.camel.quarkus.redis.stream.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate compression for stream payloads. Producers mark compressed payloads with
+ * {@code encoding=deflate} and consumers inflate them transparently.
+ * <p>
+ * The encoding field also tells how the payload bytes were written. Without it, and with
+ * {@code deflate}, the payload is text: binary payloads are the Base64 JSON string Jackson writes
+ * for {@code byte[]}, and compressed payloads are Base64 encoded. Producers using the binary codec
+ * write raw bytes instead and mark them {@code binary}, or {@code binary+deflate} when compressed.
+ * <p>
+ * Deflaters, inflaters and the inflate buffer are kept per thread, so decompressing a message
+ * does not allocate beyond the occasional growth of the buffer.
+ */
+public final class PayloadCompression {
+
+    public static final String ENCODING_FIELD = "encoding";
+    public static final String DEFLATE = "deflate";
+    public static final String BINARY = "binary";
+    public static final String BINARY_DEFLATE = "binary+deflate";
+
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<Deflater> DEFLATERS = ThreadLocal.withInitial(Deflater::new);
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(Inflater::new);
+    private static final ThreadLocal<byte[][]> BUFFERS =
+            ThreadLocal.withInitial(() -> new byte[][] {new byte[INITIAL_BUFFER_SIZE]});
+
+    private PayloadCompression() {
+    }
+
+    public static boolean isDeflated(String encoding) {
+        return DEFLATE.equals(encoding) || BINARY_DEFLATE.equals(encoding);
+    }
+
+    /**
+     * Whether the payload bytes were written as-is instead of as text.
+     */
+    public static boolean isRaw(String encoding) {
+        return BINARY.equals(encoding) || BINARY_DEFLATE.equals(encoding);
+    }
+
+    /**
+     * Compresses the input, or returns {@code null} when compression does not make it smaller.
+     */
+    public static byte[] deflate(byte[] input) {
+        Deflater deflater = DEFLATERS.get();
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+
+        byte[] output = new byte[input.length];
+        int length = 0;
+        while (!deflater.finished() && length < output.length) {
+            length += deflater.deflate(output, length, output.length - length);
+        }
+        return deflater.finished() ? Arrays.copyOf(output, length) : null;
+    }
+
+    /**
+     * Inflates the input into the calling thread's buffer. The returned buffer wraps that shared
+     * array from index 0 to its limit and is only valid until the next call on the same thread.
+     */
+    public static ByteBuffer inflate(byte[] input) throws DataFormatException {
+        Inflater inflater = INFLATERS.get();
+        inflater.reset();
+        inflater.setInput(input);
+
+        byte[][] holder = BUFFERS.get();
+        byte[] buffer = holder[0];
+        int length = 0;
+        while (!inflater.finished()) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                holder[0] = buffer;
+            }
+            int inflated = inflater.inflate(buffer, length, buffer.length - length);
+            if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                throw new DataFormatException("Truncated deflate payload");
+            }
+            length += inflated;
+        }
+        return ByteBuffer.wrap(buffer, 0, length);
+    }
+}
@@ -0,0 +1,36 @@
+package tech.nelreina.camel.quarkus.redis.stream.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the stream part of a consumer URI, which may name several streams separated by commas
+ * and may contain Redis glob patterns such as {@code orders.*}, resolved with SCAN at start.
+ */
+public final class StreamKeys {
+
+    private StreamKeys() {
+    }
+
+    public static List<String> names(String streamKeyName) {
+        List<String> names = new ArrayList<>();
+        for (String name : streamKeyName.split(",")) {
+            if (!name.trim().isEmpty()) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+
+    public static boolean isPattern(String name) {
+        return name.indexOf('*') >= 0 || name.indexOf('?') >= 0 || name.indexOf('[') >= 0;
+    }
+
+    /**
+     * Whether the endpoint reads more than one named stream or a pattern, which only consumers support.
+     */
+    public static boolean isMultiStream(String streamKeyName) {
+        List<String> names = names(streamKeyName);
+        return names.size() > 1 || (names.size() == 1 && isPattern(names.get(0)));
+    }
+}
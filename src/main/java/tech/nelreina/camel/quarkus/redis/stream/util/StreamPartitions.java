@@ -0,0 +1,44 @@
+package tech.nelreina.camel.quarkus.redis.stream.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Naming and routing for partitioned streams. A logical stream {@code orders} with N partitions
+ * is stored in the keys {@code {orders-0}} to {@code {orders-N-1}}. The whole key is the Redis
+ * Cluster hash tag, so the partitions of one stream, and the same partition of different
+ * streams, spread over the cluster's slots.
+ */
+public final class StreamPartitions {
+
+    private StreamPartitions() {
+    }
+
+    public static String partitionKey(String streamKeyName, int partition) {
+        return "{" + streamKeyName + "-" + partition + "}";
+    }
+
+    /**
+     * Returns the keys backing the logical stream, the stream key itself when it is not partitioned.
+     */
+    public static List<String> streamKeys(String streamKeyName, int partitions) {
+        if (partitions <= 1) {
+            return List.of(streamKeyName);
+        }
+        List<String> keys = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            keys.add(partitionKey(streamKeyName, partition));
+        }
+        return keys;
+    }
+
+    /**
+     * Maps an aggregate to its partition. All events of one aggregate land in the same
+     * partition, which keeps them in order.
+     */
+    public static int partitionFor(String aggregateId, int partitions) {
+        // Spread the String hash so similar IDs do not cluster in neighbouring partitions
+        int hash = aggregateId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), partitions);
+    }
+}
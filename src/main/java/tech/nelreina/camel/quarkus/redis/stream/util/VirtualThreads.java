@@ -0,0 +1,60 @@
+package tech.nelreina.camel.quarkus.redis.stream.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Creates virtual-thread factories when running on JDK 21+. The component is compiled for Java 17,
+ * so the {@code Thread.ofVirtual()} API is looked up reflectively and callers fall back to
+ * platform threads when it is not available.
+ */
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builderClass.getMethod("name", String.class, long.class);
+            factory = builderClass.getMethod("factory");
+        } catch (ReflectiveOperationException e) {
+            Log.debug("Virtual threads are not available on this JVM");
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+    }
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return FACTORY != null;
+    }
+
+    /**
+     * Returns a factory creating virtual threads named {@code prefix-N}, or {@code null}
+     * when the JVM does not support virtual threads.
+     */
+    public static ThreadFactory newThreadFactory(String prefix) {
+        if (!isSupported()) {
+            return null;
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = NAME.invoke(builder, prefix + "-", 0L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            Log.warn("Failed to create virtual thread factory, using platform threads", e);
+            return null;
+        }
+    }
+}
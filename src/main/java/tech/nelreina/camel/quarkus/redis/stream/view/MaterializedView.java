@@ -0,0 +1,104 @@
+package tech.nelreina.camel.quarkus.redis.stream.view;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import tech.nelreina.camel.quarkus.redis.stream.model.EventData;
+
+/**
+ * Latest {@link EventData} per {@code aggregateId}, fed by the consumers configured with
+ * {@code materializedView=<name>} and bound in the Camel registry under that name.
+ * <p>
+ * The view holds at most {@code maxSize} aggregates and evicts the least recently used one when
+ * full. An event only replaces the stored one when its stream ID is newer, so redelivered or
+ * reclaimed messages never roll an aggregate back.
+ */
+public class MaterializedView {
+
+    private final String name;
+    private final int maxSize;
+    private final LinkedHashMap<String, EventData> entries;
+    private long evictions;
+
+    public MaterializedView(String name, int maxSize) {
+        this.name = name;
+        this.maxSize = Math.max(1, maxSize);
+        // Access order turns the map into an LRU list
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EventData> eldest) {
+                if (size() > MaterializedView.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Stores the event as the aggregate's latest state. Events without an aggregateId are ignored.
+     */
+    public synchronized void update(EventData eventData) {
+        if (eventData.getAggregateId() == null) {
+            return;
+        }
+        EventData current = entries.get(eventData.getAggregateId());
+        if (current == null || isNewer(eventData.getKeyId(), current.getKeyId())) {
+            entries.put(eventData.getAggregateId(), eventData);
+        }
+    }
+
+    public synchronized EventData get(String aggregateId) {
+        return entries.get(aggregateId);
+    }
+
+    public synchronized EventData remove(String aggregateId) {
+        return entries.remove(aggregateId);
+    }
+
+    /**
+     * Returns a copy of the current entries.
+     */
+    public synchronized Map<String, EventData> snapshot() {
+        return new HashMap<>(entries);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private static boolean isNewer(String id, String currentId) {
+        if (id == null || currentId == null) {
+            return true;
+        }
+        int separator = id.indexOf('-');
+        int currentSeparator = currentId.indexOf('-');
+        if (separator < 0 || currentSeparator < 0) {
+            return true;
+        }
+        long millis = Long.parseLong(id.substring(0, separator));
+        long currentMillis = Long.parseLong(currentId.substring(0, currentSeparator));
+        if (millis != currentMillis) {
+            return millis > currentMillis;
+        }
+        return Long.parseLong(id.substring(separator + 1)) >= Long.parseLong(currentId.substring(currentSeparator + 1));
+    }
+}
@@ -0,0 +1,118 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.protocol.AsyncCommand;
+import io.lettuce.core.protocol.Command;
+import io.lettuce.core.protocol.CommandType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AckBatcherTest {
+
+    private RedisAsyncCommands<String, String> commands;
+    private AckBatcher ackBatcher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void createBatcher() {
+        commands = mock(RedisAsyncCommands.class);
+        when(commands.xack(anyString(), anyString(), any(String[].class))).thenReturn(reply(1L));
+        ackBatcher = new AckBatcher(key -> commands, "billing", 3,
+                new ConsumerMetrics(new SimpleMeterRegistry(), "orders", "billing"));
+    }
+
+    @Test
+    void sendsOneXackPerStreamOnFlush() {
+        ackBatcher.add("orders:0", "1-0");
+        ackBatcher.add("orders:1", "2-0");
+        verifyNoInteractions(commands);
+
+        ackBatcher.flush();
+
+        verify(commands).xack("orders:0", "billing", "1-0");
+        verify(commands).xack("orders:1", "billing", "2-0");
+        ackBatcher.flush();
+        verify(commands, times(2)).xack(anyString(), anyString(), any(String[].class));
+    }
+
+    @Test
+    void flushesWhenBatchIsFull() {
+        ackBatcher.add("orders", "1-0");
+        ackBatcher.add("orders", "2-0");
+        ackBatcher.add("orders", "3-0");
+
+        verify(commands).xack("orders", "billing", "1-0", "2-0", "3-0");
+    }
+
+    @Test
+    void retriesFailedAcknowledgementOnceWithNextFlush() {
+        when(commands.xack("orders", "billing", "1-0", "2-0"))
+                .thenReturn(failure(), failure());
+        ackBatcher.add("orders", "1-0");
+        ackBatcher.add("orders", "2-0");
+
+        ackBatcher.flush();
+        ackBatcher.add("orders", "3-0");
+        ackBatcher.flush();
+
+        verify(commands, times(2)).xack("orders", "billing", "1-0", "2-0");
+        verify(commands).xack("orders", "billing", "3-0");
+        // Failed again, now left pending for the reclaimer
+        ackBatcher.flush();
+        verify(commands, times(2)).xack("orders", "billing", "1-0", "2-0");
+    }
+
+    @Test
+    void doesNotRetrySuccessfulAcknowledgement() {
+        ackBatcher.add("orders", "1-0");
+
+        ackBatcher.flush();
+        ackBatcher.flush();
+
+        verify(commands, times(1)).xack(eq("orders"), eq("billing"), any(String[].class));
+    }
+
+    @Test
+    void retriesWhenCommandCannotBeSent() {
+        when(commands.xack("orders", "billing", "1-0"))
+                .thenThrow(new IllegalStateException("Connection closed"))
+                .thenReturn(reply(1L));
+        ackBatcher.add("orders", "1-0");
+
+        ackBatcher.flush();
+        ackBatcher.flush();
+
+        verify(commands, times(2)).xack("orders", "billing", "1-0");
+    }
+
+    private static RedisFuture<Long> reply(long count) {
+        AsyncCommand<String, String, Long> command = command();
+        command.complete(count);
+        return command;
+    }
+
+    private static RedisFuture<Long> failure() {
+        AsyncCommand<String, String, Long> command = command();
+        command.completeExceptionally(new RedisCommandExecutionException("LOADING Redis is loading the dataset in memory"));
+        return command;
+    }
+
+    private static AsyncCommand<String, String, Long> command() {
+        return new AsyncCommand<>(new Command<>(CommandType.XACK, new IntegerOutput<>(StringCodec.UTF8)));
+    }
+}
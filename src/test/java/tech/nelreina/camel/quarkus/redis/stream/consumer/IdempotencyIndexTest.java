@@ -0,0 +1,176 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.sync.RedisCommands;
+import tech.nelreina.camel.quarkus.redis.stream.consumer.IdempotencyIndex.Claim;
+
+class IdempotencyIndexTest {
+
+    // maxSize 4 gives a table of 8 slots
+    private static final int MAX_SIZE = 4;
+    private static final int MASK = 7;
+
+    @Test
+    void tracksClaimedCompletedAndReleasedKeys() {
+        IdempotencyIndex index = new IdempotencyIndex(MAX_SIZE, null, null, 0L);
+
+        assertEquals(Claim.CLAIMED, index.claim("a"));
+        assertEquals(Claim.IN_FLIGHT, index.claim("a"));
+        index.complete("a");
+        assertEquals(Claim.COMPLETED, index.claim("a"));
+        index.release("a");
+        assertEquals(Claim.CLAIMED, index.claim("a"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void keepsProbeSequenceAfterRemovingItsHead() {
+        IdempotencyIndex index = new IdempotencyIndex(MAX_SIZE, null, null, 0L);
+        List<String> keys = keysWithHomeSlot(3, 3);
+        keys.forEach(index::claim);
+        index.complete(keys.get(2));
+
+        index.release(keys.get(0));
+
+        assertEquals(2, index.size());
+        assertEquals(Claim.IN_FLIGHT, index.claim(keys.get(1)));
+        assertEquals(Claim.COMPLETED, index.claim(keys.get(2)));
+        index.release(keys.get(1));
+        assertEquals(Claim.COMPLETED, index.claim(keys.get(2)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void shiftsEntriesBackAcrossTheEndOfTheTable() {
+        IdempotencyIndex index = new IdempotencyIndex(MAX_SIZE, null, null, 0L);
+        // Two keys at home in the last slot, the second wraps to slot 0 and pushes the third to slot 1
+        List<String> lastSlot = keysWithHomeSlot(MASK, 2);
+        String firstSlot = keysWithHomeSlot(0, 1).get(0);
+        lastSlot.forEach(index::claim);
+        index.claim(firstSlot);
+
+        index.release(lastSlot.get(0));
+
+        assertEquals(Claim.IN_FLIGHT, index.claim(lastSlot.get(1)));
+        assertEquals(Claim.IN_FLIGHT, index.claim(firstSlot));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void evictsOldestKeyWhenFull() {
+        IdempotencyIndex index = new IdempotencyIndex(3, null, null, 0L);
+        index.claim("a");
+        index.claim("b");
+        index.claim("c");
+
+        index.claim("d");
+
+        assertEquals(3, index.size());
+        assertEquals(Claim.IN_FLIGHT, index.claim("c"));
+        assertEquals(Claim.IN_FLIGHT, index.claim("d"));
+        assertEquals(Claim.CLAIMED, index.claim("a"));
+    }
+
+    @Test
+    void doesNotEvictKeyClaimedAgainThroughItsOldRingSlot() {
+        IdempotencyIndex index = new IdempotencyIndex(3, null, null, 0L);
+        index.claim("a");
+        index.release("a");
+        index.claim("b");
+        index.claim("a");
+
+        // Reuses the ring slot "a" was first claimed through
+        index.claim("c");
+
+        assertEquals(Claim.IN_FLIGHT, index.claim("a"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void settlesWaitingDuplicatesWhenOriginalCompletes() {
+        IdempotencyIndex index = new IdempotencyIndex(MAX_SIZE, null, null, 0L);
+        AtomicInteger settled = new AtomicInteger();
+        index.claim("a", settled::incrementAndGet);
+
+        assertEquals(Claim.IN_FLIGHT, index.claim("a", settled::incrementAndGet));
+        assertEquals(Claim.IN_FLIGHT, index.claim("a", settled::incrementAndGet));
+        assertEquals(0, settled.get());
+        index.complete("a");
+
+        assertEquals(2, settled.get());
+        assertEquals(Claim.COMPLETED, index.claim("a", settled::incrementAndGet));
+        index.complete("a");
+        assertEquals(2, settled.get());
+    }
+
+    @Test
+    void dropsWaitingDuplicatesWhenOriginalFails() {
+        IdempotencyIndex index = new IdempotencyIndex(MAX_SIZE, null, null, 0L);
+        AtomicInteger settled = new AtomicInteger();
+        index.claim("a");
+        index.claim("a", settled::incrementAndGet);
+
+        index.release("a");
+        index.claim("a");
+        index.complete("a");
+
+        assertEquals(0, settled.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reportsKeysClaimedOnOtherInstances() {
+        RedisCommands<String, String> commands = mock(RedisCommands.class);
+        when(commands.set(anyString(), anyString(), any(SetArgs.class))).thenReturn(null);
+        when(commands.get("dedup:running")).thenReturn("0");
+        when(commands.get("dedup:done")).thenReturn("1");
+        IdempotencyIndex index = new IdempotencyIndex(MAX_SIZE, key -> commands, "dedup:", 1000L);
+
+        assertEquals(Claim.IN_FLIGHT, index.claim("running"));
+        assertEquals(Claim.COMPLETED, index.claim("done"));
+        // Only the completed key is kept, the other instance may still release the running one
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void marksCompletedKeysInRedis() {
+        RedisCommands<String, String> commands = mock(RedisCommands.class);
+        when(commands.set(anyString(), anyString(), any(SetArgs.class))).thenReturn("OK");
+        IdempotencyIndex index = new IdempotencyIndex(MAX_SIZE, key -> commands, "dedup:", 1000L);
+
+        assertEquals(Claim.CLAIMED, index.claim("a"));
+        index.complete("a");
+        index.release("a");
+
+        verify(commands).set(eq("dedup:a"), eq("0"), any(SetArgs.class));
+        verify(commands).set(eq("dedup:a"), eq("1"), any(SetArgs.class));
+        verify(commands).del("dedup:a");
+    }
+
+    private static List<String> keysWithHomeSlot(int slot, int count) {
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 0; keys.size() < count; i++) {
+            String key = "key-" + i;
+            long hash = IdempotencyIndex.hash(key);
+            if (((int) (hash ^ (hash >>> 32)) & MASK) == slot) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,122 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import tech.nelreina.camel.quarkus.redis.stream.component.RedisStreamConfiguration;
+import tech.nelreina.camel.quarkus.redis.stream.component.RedisStreamConfiguration.PayloadType;
+import tech.nelreina.camel.quarkus.redis.stream.exception.EventDataConversionException;
+import tech.nelreina.camel.quarkus.redis.stream.util.PayloadCompression;
+
+class PayloadDecoderTest {
+
+    private static final byte[] BYTES = {0, 1, 2, (byte) 0xff, (byte) 0xfe};
+    // How a String-codec producer stores a byte[] body: Jackson's quoted Base64
+    private static final String BASE64_JSON = "\"" + Base64.getEncoder().encodeToString(BYTES) + "\"";
+
+    @Test
+    void keepsUnmarkedBinaryPayloadsAsStrings() throws Exception {
+        PayloadDecoder decoder = decoder(PayloadType.STRING, false);
+
+        assertEquals(BASE64_JSON, decoder.decode(BASE64_JSON, "binary", null));
+        assertEquals(BASE64_JSON, decoder.decode(utf8(BASE64_JSON), "binary", null));
+    }
+
+    @Test
+    void wrapsMarkedRawPayloadsWithoutOptIn() throws Exception {
+        PayloadDecoder decoder = decoder(PayloadType.STRING, false);
+
+        Object decoded = decoder.decode(BYTES, "binary", PayloadCompression.BINARY);
+
+        assertBytes(BYTES, decoded);
+        assertTrue(((ByteBuffer) decoded).isReadOnly());
+    }
+
+    @Test
+    void decodesBase64BinaryPayloadsWhenOptedIn() throws Exception {
+        PayloadDecoder decoder = decoder(PayloadType.STRING, true);
+
+        assertBytes(BYTES, decoder.decode(BASE64_JSON, "binary", null));
+        assertBytes(BYTES, decoder.decode(utf8(BASE64_JSON), "binary", null));
+        // Unmarked bytes of older binary producers are taken as they are
+        assertBytes(BYTES, decoder.decode(BYTES, "binary", null));
+    }
+
+    @Test
+    void decodesTextAndJsonFromEitherCodec() throws Exception {
+        PayloadDecoder strings = decoder(PayloadType.STRING, false);
+        PayloadDecoder maps = decoder(PayloadType.MAP, false);
+        String json = "{\"orderId\":\"42\"}";
+
+        assertEquals(json, strings.decode(json, "json", null));
+        assertEquals(json, strings.decode(utf8(json), "json", null));
+        assertEquals("hello", maps.decode(utf8("hello"), "text", null));
+        assertEquals(Map.of("orderId", "42"), maps.decode(json, "json", null));
+        assertEquals(Map.of("orderId", "42"), maps.decode(utf8(json), "json", null));
+    }
+
+    @Test
+    void inflatesCompressedPayloadsOfBothCodecs() throws Exception {
+        PayloadDecoder decoder = decoder(PayloadType.MAP, false);
+        String json = "{\"items\":\"" + "x".repeat(2000) + "\"}";
+        byte[] compressed = PayloadCompression.deflate(utf8(json));
+
+        Object fromString = decoder.decode(Base64.getEncoder().encodeToString(compressed), "json", PayloadCompression.DEFLATE);
+        Object fromBytes = decoder.decode(compressed, "json", PayloadCompression.BINARY_DEFLATE);
+
+        assertEquals(Map.of("items", "x".repeat(2000)), fromString);
+        assertEquals(fromString, fromBytes);
+    }
+
+    @Test
+    void inflatesCompressedBinaryPayloadsByMarker() throws Exception {
+        byte[] payload = new byte[4096];
+        payload[100] = 7;
+        byte[] compressed = PayloadCompression.deflate(payload);
+
+        assertBytes(payload, decoder(PayloadType.STRING, false).decode(compressed, "binary", PayloadCompression.BINARY_DEFLATE));
+        // Without the raw marker and opt-in the inflated text is delivered as before
+        byte[] text = utf8("t".repeat(4096));
+        Object inflated = decoder(PayloadType.STRING, false)
+                .decode(Base64.getEncoder().encodeToString(PayloadCompression.deflate(text)), "binary", PayloadCompression.DEFLATE);
+        assertEquals("t".repeat(4096), inflated);
+    }
+
+    @Test
+    void reportsUndecodablePayloads() throws Exception {
+        PayloadDecoder decoder = decoder(PayloadType.MAP, false);
+
+        assertThrows(EventDataConversionException.class, () -> decoder.decode("not json", "json", null));
+        assertThrows(EventDataConversionException.class, () -> decoder.decode(new byte[] {1, 2, 3}, "json", PayloadCompression.BINARY_DEFLATE));
+    }
+
+    private static PayloadDecoder decoder(PayloadType payloadType, boolean binaryPayloads) throws Exception {
+        RedisStreamConfiguration configuration = new RedisStreamConfiguration();
+        configuration.setPayloadType(payloadType);
+        configuration.setBinaryPayloads(binaryPayloads);
+        return PayloadDecoder.create(configuration, new ObjectMapper(), null);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void assertBytes(byte[] expected, Object decoded) {
+        ByteBuffer buffer = assertInstanceOf(ByteBuffer.class, decoded);
+        byte[] actual = new byte[buffer.remaining()];
+        buffer.duplicate().get(actual);
+        assertArrayEquals(expected, actual);
+    }
+}
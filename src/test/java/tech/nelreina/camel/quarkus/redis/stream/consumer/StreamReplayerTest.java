@@ -0,0 +1,67 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class StreamReplayerTest {
+
+    @Test
+    void splitsRangeIntoEqualTimestampSegments() {
+        List<StreamReplayer.Segment> segments = replayer(4).split("orders", "1000-0", "1099-5", 1000L, 1099L);
+
+        assertEquals(4, segments.size());
+        assertSegment(segments.get(0), "1000-0", "1024");
+        assertSegment(segments.get(1), "1025", "1049");
+        assertSegment(segments.get(2), "1050", "1074");
+        // The remainder of an uneven split goes to the last segment, which ends at the exact last ID
+        assertSegment(segments.get(3), "1075", "1099-5");
+    }
+
+    @Test
+    void givesRemainderToLastSegment() {
+        List<StreamReplayer.Segment> segments = replayer(3).split("orders", "0-1", "9-0", 0L, 9L);
+
+        assertEquals(3, segments.size());
+        assertSegment(segments.get(0), "0-1", "2");
+        assertSegment(segments.get(1), "3", "5");
+        assertSegment(segments.get(2), "6", "9-0");
+    }
+
+    @Test
+    void usesFewerSegmentsThanMillisecondsInRange() {
+        List<StreamReplayer.Segment> segments = replayer(8).split("orders", "1000-0", "1001-3", 1000L, 1001L);
+
+        assertEquals(2, segments.size());
+        assertSegment(segments.get(0), "1000-0", "1000");
+        assertSegment(segments.get(1), "1001", "1001-3");
+    }
+
+    @Test
+    void keepsSingleMillisecondInOneSegment() {
+        List<StreamReplayer.Segment> segments = replayer(4).split("orders", "1000-0", "1000-7", 1000L, 1000L);
+
+        assertEquals(1, segments.size());
+        assertSegment(segments.get(0), "1000-0", "1000-7");
+    }
+
+    @Test
+    void convertsReplayBoundsToStreamIds() {
+        assertEquals("-", StreamReplayer.toStreamId(null, "-"));
+        assertEquals("+", StreamReplayer.toStreamId("  ", "+"));
+        assertEquals("1700000000000-3", StreamReplayer.toStreamId("1700000000000-3", "-"));
+        assertEquals("1700000000000", StreamReplayer.toStreamId(" 1700000000000 ", "-"));
+        assertEquals("1704067200000", StreamReplayer.toStreamId("2024-01-01T00:00:00Z", "-"));
+    }
+
+    private static StreamReplayer replayer(int segments) {
+        return new StreamReplayer(key -> null, List.of("orders"), null, null, segments, 100, null, page -> { });
+    }
+
+    private static void assertSegment(StreamReplayer.Segment segment, String start, String end) {
+        assertEquals(start, segment.getStart());
+        assertEquals(end, segment.getEnd());
+    }
+}
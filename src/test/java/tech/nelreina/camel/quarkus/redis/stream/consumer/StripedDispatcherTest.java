@@ -0,0 +1,140 @@
+package tech.nelreina.camel.quarkus.redis.stream.consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.spi.ExecutorServiceManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StripedDispatcherTest {
+
+    private final ExecutorServiceManager executorServiceManager = mock(ExecutorServiceManager.class);
+    private StripedDispatcher dispatcher;
+
+    @BeforeEach
+    void stubShutdown() {
+        doAnswer(invocation -> {
+            ExecutorService executor = invocation.getArgument(0);
+            executor.shutdown();
+            executor.awaitTermination(invocation.getArgument(1), TimeUnit.MILLISECONDS);
+            return null;
+        }).when(executorServiceManager).shutdownGraceful(any(ExecutorService.class), anyLong());
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown(5000L);
+        }
+    }
+
+    @Test
+    void runsTasksOfOneKeyInSubmissionOrder() throws Exception {
+        dispatcher = newDispatcher(4, 16);
+        int keys = 8;
+        int tasksPerKey = 200;
+        Map<String, List<Integer>> executed = new HashMap<>();
+        for (int k = 0; k < keys; k++) {
+            executed.put("aggregate-" + k, Collections.synchronizedList(new ArrayList<>()));
+        }
+        CountDownLatch done = new CountDownLatch(keys * tasksPerKey);
+
+        for (int i = 0; i < tasksPerKey; i++) {
+            for (int k = 0; k < keys; k++) {
+                String key = "aggregate-" + k;
+                int sequence = i;
+                dispatcher.dispatch(key, () -> {
+                    // Uneven task times would reorder a key's tasks if they ran in parallel
+                    if (ThreadLocalRandom.current().nextInt(10) == 0) {
+                        Thread.yield();
+                    }
+                    executed.get(key).add(sequence);
+                    done.countDown();
+                });
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (List<Integer> sequences : executed.values()) {
+            assertEquals(tasksPerKey, sequences.size());
+            for (int i = 0; i < tasksPerKey; i++) {
+                assertEquals(i, sequences.get(i));
+            }
+        }
+    }
+
+    @Test
+    void blocksDispatchWhileTooManyTasksAreInFlight() throws Exception {
+        dispatcher = newDispatcher(2, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.dispatch("a", () -> await(release));
+        dispatcher.dispatch("b", () -> await(release));
+
+        CountDownLatch dispatched = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                dispatcher.dispatch("c", () -> { });
+                dispatched.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        assertFalse(dispatched.await(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+        producer.join(5000L);
+    }
+
+    @Test
+    void throwsWhenInterruptedWaitingForAPermit() throws Exception {
+        dispatcher = newDispatcher(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.dispatch("a", () -> await(release));
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedException.class, () -> dispatcher.dispatch("b", () -> { }));
+        } finally {
+            Thread.interrupted();
+            release.countDown();
+        }
+
+        // The permit of the running task is still returned
+        CountDownLatch ran = new CountDownLatch(1);
+        dispatcher.dispatch("c", ran::countDown);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+
+    private StripedDispatcher newDispatcher(int stripes, int maxInFlight) {
+        return new StripedDispatcher(executorServiceManager, this, "test", stripes, maxInFlight, Executors.defaultThreadFactory());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
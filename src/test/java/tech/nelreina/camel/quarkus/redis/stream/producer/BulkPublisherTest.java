@@ -0,0 +1,131 @@
+package tech.nelreina.camel.quarkus.redis.stream.producer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.TransactionResult;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.protocol.AsyncCommand;
+import io.lettuce.core.protocol.Command;
+import io.lettuce.core.protocol.CommandType;
+import tech.nelreina.camel.quarkus.redis.stream.component.RedisConnectionManager;
+
+class BulkPublisherTest {
+
+    private static final Map<String, String> BODY = Map.of("event", "OrderCreated");
+
+    private final RedisConnectionManager connectionManager = mock(RedisConnectionManager.class);
+    private final Map<String, StatefulRedisConnection<String, Object>> connections = new HashMap<>();
+    private final Map<String, RedisAsyncCommands<String, Object>> commandsByNode = new HashMap<>();
+
+    @BeforeEach
+    void routeKeysToNodes() {
+        // Partitions 0 and 2 live on node a, 1 and 3 on node b
+        for (int partition = 0; partition < 4; partition++) {
+            String key = "{orders-" + partition + "}";
+            String node = partition % 2 == 0 ? "a" : "b";
+            when(connectionManager.nodeFor(key)).thenReturn(node);
+            when(connectionManager.slotFor(key)).thenReturn(partition);
+            StatefulRedisConnection<String, Object> connection = connections.computeIfAbsent(node, this::connection);
+            when(connectionManager.acquirePooled(anyBoolean(), eq(key)))
+                    .thenReturn(CompletableFuture.completedFuture(connection));
+        }
+    }
+
+    @Test
+    void returnsIdsInBodyOrderAcrossNodes() {
+        List<String> keys = List.of("{orders-0}", "{orders-1}", "{orders-2}", "{orders-3}", "{orders-0}");
+
+        List<String> ids = BulkPublisher.publish(connectionManager, false, keys, List.of(BODY, BODY, BODY, BODY, BODY), false).join();
+
+        // Each node numbers its own replies, the IDs must still line up with the bodies
+        assertEquals(List.of("a-1", "b-1", "a-2", "b-2", "a-3"), ids);
+        verify(connectionManager).releasePooled(connections.get("a"));
+        verify(connectionManager).releasePooled(connections.get("b"));
+    }
+
+    @Test
+    void rejectsTransactionsSpanningSlots() {
+        List<String> keys = List.of("{orders-0}", "{orders-2}");
+
+        CompletableFuture<List<String>> ids = BulkPublisher.publish(connectionManager, false, keys, List.of(BODY, BODY), true);
+
+        CompletionException error = assertThrows(CompletionException.class, ids::join);
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        verify(connectionManager, never()).acquirePooled(anyBoolean(), anyString());
+    }
+
+    @Test
+    void wrapsSingleSlotBatchInTransaction() {
+        RedisAsyncCommands<String, Object> commands = commandsByNode.get("a");
+        when(commands.multi()).thenReturn(status("OK"));
+        AsyncCommand<String, Object, TransactionResult> exec = new AsyncCommand<>(new Command<>(CommandType.EXEC, null));
+        exec.complete(null);
+        when(commands.exec()).thenReturn(exec);
+
+        List<String> ids = BulkPublisher.publish(connectionManager, false, List.of("{orders-0}", "{orders-0}"),
+                List.of(BODY, BODY), true).join();
+
+        assertEquals(List.of("a-1", "a-2"), ids);
+        verify(commands).multi();
+        verify(commands).exec();
+    }
+
+    @Test
+    void failsWhenANodeFailsAndReleasesItsConnection() {
+        RedisAsyncCommands<String, Object> commands = commandsByNode.get("b");
+        AsyncCommand<String, Object, String> failed = command();
+        failed.completeExceptionally(new RedisCommandExecutionException("OOM command not allowed"));
+        when(commands.xadd(anyString(), anyMap())).thenReturn(failed);
+
+        CompletableFuture<List<String>> ids = BulkPublisher.publish(connectionManager, false,
+                List.of("{orders-0}", "{orders-1}"), List.of(BODY, BODY), false);
+
+        CompletionException error = assertThrows(CompletionException.class, ids::join);
+        assertInstanceOf(RedisCommandExecutionException.class, error.getCause());
+        verify(connectionManager).releasePooled(connections.get("b"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private StatefulRedisConnection<String, Object> connection(String node) {
+        StatefulRedisConnection<String, Object> connection = mock(StatefulRedisConnection.class);
+        RedisAsyncCommands<String, Object> commands = mock(RedisAsyncCommands.class);
+        AtomicInteger sequence = new AtomicInteger();
+        when(commands.xadd(anyString(), any(Map.class))).thenAnswer(invocation -> status(node + "-" + sequence.incrementAndGet()));
+        when(connection.async()).thenReturn(commands);
+        commandsByNode.put(node, commands);
+        return connection;
+    }
+
+    private static AsyncCommand<String, Object, String> status(String reply) {
+        AsyncCommand<String, Object, String> command = command();
+        command.complete(reply);
+        return command;
+    }
+
+    private static AsyncCommand<String, Object, String> command() {
+        return new AsyncCommand<>(new Command<>(CommandType.XADD, null));
+    }
+}
@@ -0,0 +1,89 @@
+package tech.nelreina.camel.quarkus.redis.stream.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class HeaderFilterTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String[] HEADERS = {
+        "{\"a\":\"1\",\"b\":\"2\"}",
+        "{\"b\":\"2\",\"x\":{\"nested\":[1,2]},\"a\":\"1\"}",
+        "{\"a\":\"1\"}",
+        "{\"a\":\"1\",\"a\":\"1\"}",
+        "{\"a\":\"2\",\"b\":\"2\",\"a\":\"1\"}",
+        "{\"a\":\"1\",\"b\":\"2\",\"a\":\"2\"}",
+        "{\"a\":\"1\",\"b\":\"2\",\"b\":null}",
+        "{\"a\":1,\"b\":2}",
+        "{\"a\":\"1\",\"b\":\"3\"}",
+        "{\"a\":true,\"b\":\"2\"}",
+        "{}",
+        "[]"
+    };
+
+    @Test
+    void jsonScanAgreesWithDeserializedHeaders() throws Exception {
+        for (String filters : new String[] {"a=1,b=2", "a=1", "a=true", "b=2", "x={nested=[1, 2]}"}) {
+            HeaderFilter filter = new HeaderFilter(filters);
+            for (String json : HEADERS) {
+                boolean expected = json.startsWith("{") && filter.matches(deserialize(json));
+                assertEquals(expected, filter.matchesJson(json), filters + " on " + json);
+                assertEquals(expected, filter.matchesJson(json.getBytes(StandardCharsets.UTF_8)), filters + " on bytes of " + json);
+            }
+        }
+    }
+
+    @Test
+    void repeatedKeyDoesNotStandInForAnotherCriterion() {
+        HeaderFilter filter = new HeaderFilter("a=1,b=2");
+
+        assertFalse(filter.matchesJson("{\"a\":\"1\",\"a\":\"1\"}"));
+    }
+
+    @Test
+    void lastValueOfRepeatedKeyWins() {
+        HeaderFilter filter = new HeaderFilter("a=1");
+
+        assertTrue(filter.matchesJson("{\"a\":\"2\",\"a\":\"1\"}"));
+        assertFalse(filter.matchesJson("{\"a\":\"1\",\"a\":\"2\"}"));
+    }
+
+    @Test
+    void routeFiltersOverrideGlobalFilters() {
+        HeaderFilter filter = new HeaderFilter("env=prod,region=eu", "region=us");
+
+        assertTrue(filter.matchesJson("{\"env\":\"prod\",\"region\":\"us\"}"));
+        assertFalse(filter.matchesJson("{\"env\":\"prod\",\"region\":\"eu\"}"));
+    }
+
+    @Test
+    void emptyFilterMatchesAnything() {
+        HeaderFilter filter = new HeaderFilter("");
+
+        assertTrue(filter.matchesJson((String) null));
+        assertTrue(filter.matchesJson("{\"a\":\"1\"}"));
+    }
+
+    @Test
+    void missingOrMalformedHeadersDoNotMatch() {
+        HeaderFilter filter = new HeaderFilter("a=1");
+
+        assertFalse(filter.matchesJson((String) null));
+        assertFalse(filter.matchesJson(""));
+        assertFalse(filter.matchesJson("{\"a\":"));
+    }
+
+    private static Map<String, Object> deserialize(String json) throws Exception {
+        return OBJECT_MAPPER.readValue(json, new TypeReference<Map<String, Object>>() { });
+    }
+}
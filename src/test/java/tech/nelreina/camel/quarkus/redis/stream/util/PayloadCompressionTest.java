@@ -0,0 +1,69 @@
+package tech.nelreina.camel.quarkus.redis.stream.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+import org.junit.jupiter.api.Test;
+
+class PayloadCompressionTest {
+
+    @Test
+    void inflatesWhatWasDeflated() throws Exception {
+        byte[] payload = "{\"orderId\":\"42\",\"items\":[\"a\",\"b\",\"c\"]}".repeat(20).getBytes(StandardCharsets.UTF_8);
+
+        byte[] compressed = PayloadCompression.deflate(payload);
+
+        assertNotNull(compressed);
+        assertTrue(compressed.length < payload.length);
+        assertArrayEquals(payload, toArray(PayloadCompression.inflate(compressed)));
+    }
+
+    @Test
+    void growsInflateBufferForLargePayloads() throws Exception {
+        // Well beyond the initial 8 KiB buffer
+        byte[] payload = "0123456789abcdef".repeat(10000).getBytes(StandardCharsets.UTF_8);
+
+        assertArrayEquals(payload, toArray(PayloadCompression.inflate(PayloadCompression.deflate(payload))));
+        // The grown buffer is reused for smaller payloads on the same thread
+        byte[] small = "small payload ".repeat(10).getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(small, toArray(PayloadCompression.inflate(PayloadCompression.deflate(small))));
+    }
+
+    @Test
+    void skipsIncompressiblePayloads() {
+        byte[] payload = new byte[1024];
+        new Random(42).nextBytes(payload);
+
+        assertNull(PayloadCompression.deflate(payload));
+    }
+
+    @Test
+    void rejectsTruncatedInput() {
+        byte[] compressed = PayloadCompression.deflate("abc".repeat(1000).getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(DataFormatException.class,
+                () -> PayloadCompression.inflate(Arrays.copyOf(compressed, compressed.length / 2)));
+    }
+
+    @Test
+    void tellsEncodingsApart() {
+        assertTrue(PayloadCompression.isDeflated(PayloadCompression.DEFLATE));
+        assertTrue(PayloadCompression.isDeflated(PayloadCompression.BINARY_DEFLATE));
+        assertTrue(PayloadCompression.isRaw(PayloadCompression.BINARY));
+        assertTrue(PayloadCompression.isRaw(PayloadCompression.BINARY_DEFLATE));
+        assertTrue(!PayloadCompression.isRaw(PayloadCompression.DEFLATE) && !PayloadCompression.isDeflated(null));
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        return Arrays.copyOfRange(buffer.array(), buffer.position(), buffer.limit());
+    }
+}
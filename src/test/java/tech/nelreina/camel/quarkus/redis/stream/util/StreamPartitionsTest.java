@@ -0,0 +1,65 @@
+package tech.nelreina.camel.quarkus.redis.stream.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.lettuce.core.cluster.SlotHash;
+
+class StreamPartitionsTest {
+
+    @Test
+    void keepsUnpartitionedStreamKey() {
+        assertEquals(List.of("orders"), StreamPartitions.streamKeys("orders", 0));
+        assertEquals(List.of("orders"), StreamPartitions.streamKeys("orders", 1));
+    }
+
+    @Test
+    void namesPartitionKeysWithTheirOwnHashTag() {
+        assertEquals(List.of("{orders-0}", "{orders-1}", "{orders-2}"), StreamPartitions.streamKeys("orders", 3));
+    }
+
+    @Test
+    void spreadsPartitionsOverClusterSlots() {
+        Set<Integer> slots = new HashSet<>();
+        for (String key : StreamPartitions.streamKeys("orders", 8)) {
+            slots.add(SlotHash.getSlot(key));
+        }
+        assertTrue(slots.size() > 1, "All partitions hash to slot " + slots);
+        // The same partition of another stream is not pinned to the same slot
+        assertTrue(SlotHash.getSlot(StreamPartitions.partitionKey("orders", 0))
+                != SlotHash.getSlot(StreamPartitions.partitionKey("payments", 0)));
+    }
+
+    @Test
+    void routesAnAggregateToOnePartition() {
+        for (int partitions = 1; partitions <= 16; partitions++) {
+            for (int i = 0; i < 100; i++) {
+                String aggregateId = "order-" + i;
+                int partition = StreamPartitions.partitionFor(aggregateId, partitions);
+                assertTrue(partition >= 0 && partition < partitions);
+                assertEquals(partition, StreamPartitions.partitionFor(aggregateId, partitions));
+            }
+        }
+    }
+
+    @Test
+    void usesEveryPartitionForSimilarIds() {
+        int partitions = 8;
+        int[] counts = new int[partitions];
+        for (int i = 0; i < 8000; i++) {
+            counts[StreamPartitions.partitionFor("order-" + i, partitions)]++;
+        }
+        for (int count : counts) {
+            // Within half of the even share of 1000
+            assertTrue(count > 500 && count < 1500, "Uneven partition counts");
+        }
+        // Negative hash codes still map into range
+        assertTrue(StreamPartitions.partitionFor("polygenelubricants", partitions) >= 0);
+    }
+}